@@ -0,0 +1,56 @@
+package com.vti.rk25finalexam.benchmark;
+
+import com.vti.rk25finalexam.Rk25FinalExamApplication;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Spring context của app chạy trên H2 (không web), dùng chung cho cả trial:
+ * lấy CriteriaBuilder, ObjectMapper, MessageSource đúng như khi chạy thật.
+ */
+@State(Scope.Benchmark)
+public class AppState {
+
+    ConfigurableApplicationContext context;
+
+    EntityManager entityManager;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = new SpringApplicationBuilder(Rk25FinalExamApplication.class)
+            .web(WebApplicationType.NONE)
+            // tham số dòng lệnh ưu tiên hơn application.properties của app
+            .run(
+                "--spring.datasource.url=jdbc:h2:mem:benchmark;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=warn",
+                "--logging.level.org.hibernate.SQL=warn",
+                "--spring.main.banner-mode=off",
+                "--app.search.index.enabled=false",
+                "--app.username-filter.enabled=false",
+                // H2 không nhận fetch size âm (MySQL streaming)
+                "--app.export.fetch-size=1000");
+        entityManager = context.getBean(EntityManagerFactory.class).createEntityManager();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        entityManager.close();
+        context.close();
+    }
+
+    <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+}
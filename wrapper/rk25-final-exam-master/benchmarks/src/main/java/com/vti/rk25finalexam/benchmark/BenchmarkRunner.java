@@ -0,0 +1,181 @@
+package com.vti.rk25finalexam.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+/**
+ * Chạy JMH, ghi kết quả JSON vào target/jmh-result.json rồi so với baseline.
+ * <pre>
+ *   -save-baseline          lưu kết quả lần chạy này làm baseline
+ *   -baseline &lt;file&gt;        file baseline (mặc định baseline/jmh-baseline.json)
+ *   -compare &lt;file&gt;         không chạy, chỉ so file kết quả có sẵn với baseline
+ *   -threshold &lt;tỉ lệ&gt;      chậm hơn baseline quá tỉ lệ này (và quá sai số) là regression, mặc định 0.10
+ *   -quick                  ít iteration hơn, dùng khi thử nhanh
+ *   -gc                     bật GC profiler (byte cấp phát mỗi op)
+ *   &lt;regex&gt;...               chỉ chạy benchmark khớp regex
+ * </pre>
+ * Có regression thì thoát với mã 1 để CI đánh fail.
+ */
+public class BenchmarkRunner {
+
+    private static final Path RESULT = Paths.get("target", "jmh-result.json");
+
+    public static void main(String[] args) throws RunnerException, IOException {
+        Path baseline = Paths.get("baseline", "jmh-baseline.json");
+        Path compare = null;
+        double threshold = 0.10;
+        boolean saveBaseline = false;
+        boolean quick = false;
+        boolean gc = false;
+        List<String> includes = new ArrayList<>();
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "-save-baseline":
+                    saveBaseline = true;
+                    break;
+                case "-baseline":
+                    baseline = Paths.get(args[++i]);
+                    break;
+                case "-compare":
+                    compare = Paths.get(args[++i]);
+                    break;
+                case "-threshold":
+                    threshold = Double.parseDouble(args[++i]);
+                    break;
+                case "-quick":
+                    quick = true;
+                    break;
+                case "-gc":
+                    gc = true;
+                    break;
+                default:
+                    includes.add(args[i]);
+            }
+        }
+
+        Path result = compare;
+        if (result == null) {
+            result = run(includes, quick, gc);
+        }
+
+        if (saveBaseline) {
+            Files.createDirectories(baseline.toAbsolutePath().getParent());
+            Files.copy(result, baseline, StandardCopyOption.REPLACE_EXISTING);
+            System.out.println("Baseline saved to " + baseline.toAbsolutePath());
+            return;
+        }
+        if (!Files.exists(baseline)) {
+            System.out.println("No baseline at " + baseline.toAbsolutePath() + ", run with -save-baseline to create one");
+            return;
+        }
+        if (compare(read(baseline), read(result), threshold)) {
+            System.exit(1);
+        }
+    }
+
+    private static Path run(List<String> includes, boolean quick, boolean gc) throws RunnerException, IOException {
+        Files.createDirectories(RESULT.toAbsolutePath().getParent());
+        ChainedOptionsBuilder options = new OptionsBuilder()
+            .resultFormat(ResultFormatType.JSON)
+            .result(RESULT.toString());
+        includes.forEach(options::include);
+        if (quick) {
+            options.warmupIterations(1)
+                .warmupTime(TimeValue.milliseconds(500))
+                .measurementIterations(2)
+                .measurementTime(TimeValue.milliseconds(500));
+        }
+        if (gc) {
+            options.addProfiler(GCProfiler.class);
+        }
+        new Runner(options.build()).run();
+        return RESULT;
+    }
+
+    // true nếu có benchmark chậm hơn baseline quá threshold và quá tổng sai số hai lần đo
+    private static boolean compare(Map<String, Score> baseline, Map<String, Score> current, double threshold) {
+        boolean regressed = false;
+        System.out.println();
+        System.out.printf("%-55s %24s %24s %9s  %s%n", "Benchmark", "Baseline", "Current", "Change", "");
+        for (Map.Entry<String, Score> entry : current.entrySet()) {
+            Score now = entry.getValue();
+            Score before = baseline.get(entry.getKey());
+            if (before == null) {
+                System.out.printf("%-55s %24s %24s %9s  %s%n", entry.getKey(), "-", now, "", "NEW");
+                continue;
+            }
+            // thrpt: càng lớn càng tốt, các mode còn lại (avgt, sample, ss): càng nhỏ càng tốt
+            double change = (now.score - before.score) / before.score;
+            double worse = now.higherIsBetter ? -change : change;
+            boolean significant = Math.abs(now.score - before.score) > now.error + before.error;
+            String verdict = "";
+            if (significant && worse > threshold) {
+                verdict = "REGRESSION";
+                regressed = true;
+            } else if (significant && worse < -threshold) {
+                verdict = "IMPROVED";
+            }
+            System.out.printf("%-55s %24s %24s %+8.1f%%  %s%n", entry.getKey(), before, now, change * 100, verdict);
+        }
+        return regressed;
+    }
+
+    private static Map<String, Score> read(Path file) throws IOException {
+        Map<String, Score> scores = new LinkedHashMap<>();
+        for (JsonNode run : new ObjectMapper().readTree(file.toFile())) {
+            String key = run.get("benchmark").asText()
+                .substring(BenchmarkRunner.class.getPackage().getName().length() + 1);
+            if (run.has("params")) {
+                key += " " + run.get("params");
+            }
+            JsonNode metric = run.get("primaryMetric");
+            double error = metric.get("scoreError").asDouble();
+            scores.put(key, new Score(
+                metric.get("score").asDouble(),
+                Double.isNaN(error) ? 0 : error,
+                metric.get("scoreUnit").asText(),
+                "thrpt".equals(run.get("mode").asText())));
+        }
+        return scores;
+    }
+
+    private static class Score {
+
+        private final double score;
+
+        private final double error;
+
+        private final String unit;
+
+        private final boolean higherIsBetter;
+
+        private Score(double score, double error, String unit, boolean higherIsBetter) {
+            this.score = score;
+            this.error = error;
+            this.unit = unit;
+            this.higherIsBetter = higherIsBetter;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%.3f +- %.3f %s", score, error, unit);
+        }
+    }
+}
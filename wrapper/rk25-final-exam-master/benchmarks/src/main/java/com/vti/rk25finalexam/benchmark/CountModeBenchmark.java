@@ -0,0 +1,102 @@
+package com.vti.rk25finalexam.benchmark;
+
+import com.vti.rk25finalexam.common.Constants.IS_DELETED;
+import com.vti.rk25finalexam.entity.Department;
+import com.vti.rk25finalexam.entity.criteria.AccountCriteria;
+import com.vti.rk25finalexam.repository.DepartmentRepository;
+import com.vti.rk25finalexam.service.AccountService;
+import com.vti.rk25finalexam.spec.AccountFields;
+import com.vti.rk25finalexam.spec.filter.StringFilter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Một trang GET /api/v1/accounts?username.contains=... theo từng chế độ count:
+ * mặc định (trang rồi COUNT), ?count=none (Slice, lấy dư 1 dòng), ?count=parallel (COUNT song song).
+ * "user1" khớp nhiều trang nên luôn cần COUNT; "user4999" chỉ khớp vài dòng,
+ * trang đầu chưa đầy nên tổng số suy ra từ trang và COUNT song song bị hủy.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CountModeBenchmark {
+
+    private static final int ACCOUNTS = 50_000;
+
+    private static final int PAGE_SIZE = 20;
+
+    private static final String INSERT_ACCOUNT =
+        "insert into account (username, first_name, last_name, role, department_id, is_deleted) "
+            + "values (?, ?, ?, ?, ?, ?)";
+
+    @Param({"user1", "user4999"})
+    private String username;
+
+    private AccountService accountService;
+
+    private AccountCriteria criteria;
+
+    private Pageable pageable;
+
+    private AccountFields fields;
+
+    @Setup
+    public void setUp(AppState app) {
+        accountService = app.getBean(AccountService.class);
+        seed(app.getBean(JdbcTemplate.class), app.getBean(DepartmentRepository.class));
+
+        StringFilter filter = new StringFilter();
+        filter.setContains(username);
+        criteria = new AccountCriteria();
+        criteria.setUsername(filter);
+        pageable = PageRequest.of(0, PAGE_SIZE, Sort.by("id"));
+        fields = AccountFields.parse(null);
+    }
+
+    @Benchmark
+    public long pageAndCount() {
+        return accountService.findAllByCriteria(criteria, pageable, fields).getTotalElements();
+    }
+
+    @Benchmark
+    public Slice<?> sliceWithoutCount() {
+        return accountService.findSliceByCriteria(criteria, pageable, fields);
+    }
+
+    @Benchmark
+    public long pageAndParallelCount() {
+        return accountService.findAllByCriteriaParallelCount(criteria, pageable, fields).getTotalElements();
+    }
+
+    private void seed(JdbcTemplate jdbcTemplate, DepartmentRepository departmentRepository) {
+        if (jdbcTemplate.queryForObject("select count(*) from account", Long.class) >= ACCOUNTS) {
+            return;
+        }
+        Integer departmentId = departmentRepository.save(new Department().name("Benchmark")).getId();
+        List<Object[]> rows = new ArrayList<>(ACCOUNTS);
+        for (int i = 0; i < ACCOUNTS; i++) {
+            rows.add(new Object[]{"user" + i, "First" + i, "Last" + i % 100, "EMPLOYEE", departmentId, IS_DELETED.FALSE});
+        }
+        jdbcTemplate.batchUpdate(INSERT_ACCOUNT, rows);
+    }
+}
@@ -0,0 +1,87 @@
+package com.vti.rk25finalexam.benchmark;
+
+import com.vti.rk25finalexam.common.Constants.IS_DELETED;
+import com.vti.rk25finalexam.entity.Department;
+import com.vti.rk25finalexam.repository.DepartmentRepository;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Throughput INSERT account (dòng/giây) theo JDBC batch size, cùng câu INSERT với import
+ * (id AUTO_INCREMENT, mỗi lần gọi {@value #ROWS} dòng trong một transaction) — để chọn
+ * app.import.batch-size. INSERT qua Hibernate (id IDENTITY) không batch nên không đo ở đây.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InsertThroughputBenchmark {
+
+    private static final int ROWS = 1000;
+
+    private static final String INSERT_ACCOUNT =
+        "insert into account (username, first_name, last_name, role, department_id, is_deleted) "
+            + "values (?, ?, ?, ?, ?, ?)";
+
+    @Param({"1", "10", "50", "100", "500"})
+    private int batchSize;
+
+    private JdbcTemplate jdbcTemplate;
+
+    private TransactionTemplate transactionTemplate;
+
+    private Integer departmentId;
+
+    private long sequence;
+
+    @Setup
+    public void setUp(AppState app) {
+        jdbcTemplate = app.getBean(JdbcTemplate.class);
+        transactionTemplate = new TransactionTemplate(app.getBean(PlatformTransactionManager.class));
+        departmentId = app.getBean(DepartmentRepository.class).save(new Department().name("Benchmark")).getId();
+    }
+
+    @TearDown(Level.Iteration)
+    public void clean() {
+        jdbcTemplate.update("delete from account");
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void insertAccounts() {
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Object[]> rows = new ArrayList<>(batchSize);
+            for (int i = 0; i < ROWS; i++) {
+                long n = sequence++;
+                rows.add(new Object[]{"bench_" + n, "First" + n, "Last" + n, "EMPLOYEE", departmentId, IS_DELETED.FALSE});
+                if (rows.size() == batchSize) {
+                    jdbcTemplate.batchUpdate(INSERT_ACCOUNT, rows);
+                    rows.clear();
+                }
+            }
+            if (!rows.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_ACCOUNT, rows);
+            }
+        });
+    }
+}
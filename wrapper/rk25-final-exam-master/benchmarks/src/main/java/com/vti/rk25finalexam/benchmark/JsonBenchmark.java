@@ -0,0 +1,57 @@
+package com.vti.rk25finalexam.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vti.rk25finalexam.entity.dto.AccountDTO;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+/**
+ * Serialize Page&lt;AccountDTO&gt; bằng ObjectMapper của Spring, như response của GET /api/v1/accounts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonBenchmark {
+
+    @Param({"20", "100"})
+    private int size;
+
+    private ObjectMapper objectMapper;
+
+    private Page<AccountDTO> page;
+
+    @Setup
+    public void setUp(AppState app) {
+        objectMapper = app.getBean(ObjectMapper.class);
+        List<AccountDTO> content = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            content.add(new AccountDTO(i, "user" + i, "First" + i, "Last" + i,
+                "EMPLOYEE", i % 10, "Department " + i % 10));
+        }
+        page = new PageImpl<>(content, PageRequest.of(0, size), 10_000);
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+}
@@ -0,0 +1,97 @@
+package com.vti.rk25finalexam.benchmark;
+
+import com.vti.rk25finalexam.entity.Account;
+import com.vti.rk25finalexam.entity.Department;
+import com.vti.rk25finalexam.entity.dto.AccountCreateDTO;
+import com.vti.rk25finalexam.entity.dto.AccountDTO;
+import com.vti.rk25finalexam.entity.dto.DepartmentDTO;
+import com.vti.rk25finalexam.mapper.AccountMapper;
+import com.vti.rk25finalexam.mapper.DepartmentMapper;
+import java.util.concurrent.TimeUnit;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * So sánh mapper viết tay với ModelMapper (thời gian + số byte cấp phát mỗi lần map, xem -gc).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    private ModelMapper modelMapper;
+
+    private AccountMapper accountMapper;
+
+    private DepartmentMapper departmentMapper;
+
+    private Account account;
+
+    private AccountCreateDTO accountCreateDTO;
+
+    private Department department;
+
+    @Setup
+    public void setUp() {
+        modelMapper = new ModelMapper();
+        accountMapper = new AccountMapper();
+        departmentMapper = new DepartmentMapper();
+
+        department = new Department().id(7).name("Sales");
+        account = new Account()
+            .id(42)
+            .username("benchmark")
+            .firstName("First")
+            .lastName("Last")
+            .role("EMPLOYEE")
+            .department(department);
+        accountCreateDTO = new AccountCreateDTO();
+        accountCreateDTO.setUsername("benchmark");
+        accountCreateDTO.setFirstName("First");
+        accountCreateDTO.setLastName("Last");
+        accountCreateDTO.setRole("EMPLOYEE");
+        accountCreateDTO.setDepartmentId(7);
+    }
+
+    @Benchmark
+    public AccountDTO accountToDTOModelMapper() {
+        return modelMapper.map(account, AccountDTO.class);
+    }
+
+    @Benchmark
+    public AccountDTO accountToDTOMapper() {
+        return accountMapper.toDTO(account);
+    }
+
+    @Benchmark
+    public Account createDTOToAccountModelMapper() {
+        return modelMapper.map(accountCreateDTO, Account.class);
+    }
+
+    @Benchmark
+    public Account createDTOToAccountMapper() {
+        return accountMapper.toEntity(accountCreateDTO);
+    }
+
+    @Benchmark
+    public DepartmentDTO departmentToDTOModelMapper() {
+        return modelMapper.map(department, DepartmentDTO.class);
+    }
+
+    @Benchmark
+    public DepartmentDTO departmentToDTOMapper() {
+        return departmentMapper.toDTO(department);
+    }
+}
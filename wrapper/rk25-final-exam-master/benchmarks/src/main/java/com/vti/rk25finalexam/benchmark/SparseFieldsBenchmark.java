@@ -0,0 +1,113 @@
+package com.vti.rk25finalexam.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.vti.rk25finalexam.common.Constants.ACCOUNT;
+import com.vti.rk25finalexam.common.Constants.ACCOUNT_FIELDS;
+import com.vti.rk25finalexam.entity.Account;
+import com.vti.rk25finalexam.entity.Department;
+import com.vti.rk25finalexam.entity.dto.AccountDTO;
+import com.vti.rk25finalexam.repository.AccountRepository;
+import com.vti.rk25finalexam.repository.DepartmentRepository;
+import com.vti.rk25finalexam.spec.AccountFields;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Một trang GET /api/v1/accounts?fields=... phía server: query DTO trên H2 + serialize JSON.
+ * fields rỗng = không có tham số fields (SELECT_DTO đầy đủ, join department).
+ * Kích thước JSON mỗi trang được in ra lúc setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SparseFieldsBenchmark {
+
+    private static final int ACCOUNTS = 5000;
+
+    private static final int DEPARTMENTS = 50;
+
+    private static final int PAGE_SIZE = 100;
+
+    @Param({"", "id,username", "id,username,deptId", "id,username,deptName"})
+    private String fields;
+
+    private AccountFields accountFields;
+
+    private AccountRepository accountRepository;
+
+    private TransactionTemplate readOnly;
+
+    private ObjectWriter writer;
+
+    private int page;
+
+    @Setup
+    public void setUp(AppState app) throws JsonProcessingException {
+        accountRepository = app.getBean(AccountRepository.class);
+        readOnly = new TransactionTemplate(app.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+        seed(app.getBean(DepartmentRepository.class), app.getBean(PlatformTransactionManager.class));
+
+        accountFields = AccountFields.parse(fields);
+        // giống AccountFieldsResponseBodyAdvice
+        ObjectMapper objectMapper = app.getBean(ObjectMapper.class);
+        writer = accountFields.isAll()
+            ? objectMapper.writer()
+            : objectMapper.writer(new SimpleFilterProvider().addFilter(ACCOUNT_FIELDS.FILTER,
+                SimpleBeanPropertyFilter.filterOutAllExcept(accountFields.getNames())));
+
+        System.out.printf("%nfields=%s: %d bytes/page of %d accounts%n",
+            fields.isEmpty() ? "(all)" : fields, listPage().length, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public byte[] listPage() throws JsonProcessingException {
+        page = (page + 1) % (ACCOUNTS / PAGE_SIZE);
+        Page<AccountDTO> accounts = readOnly.execute(status -> accountRepository
+            .findAllDTO(null, PageRequest.of(page, PAGE_SIZE, Sort.by(ACCOUNT.ID)), accountFields));
+        return writer.writeValueAsBytes(accounts);
+    }
+
+    private void seed(DepartmentRepository departmentRepository, PlatformTransactionManager transactionManager) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            List<Department> departments = new ArrayList<>();
+            for (int i = 0; i < DEPARTMENTS; i++) {
+                departments.add(departmentRepository.save(new Department().name("Department " + i)));
+            }
+            List<Account> accounts = new ArrayList<>(ACCOUNTS);
+            for (int i = 0; i < ACCOUNTS; i++) {
+                accounts.add(new Account()
+                    .username("user" + i)
+                    .firstName("First" + i)
+                    .lastName("Last" + i % 100)
+                    .role("EMPLOYEE")
+                    .department(departments.get(i % DEPARTMENTS)));
+            }
+            accountRepository.saveAll(accounts);
+        });
+    }
+}
@@ -0,0 +1,86 @@
+package com.vti.rk25finalexam.benchmark;
+
+import com.vti.rk25finalexam.common.Constants.ACCOUNT;
+import com.vti.rk25finalexam.common.Constants.OPERATOR;
+import com.vti.rk25finalexam.entity.Account;
+import com.vti.rk25finalexam.entity.criteria.AccountCriteria;
+import com.vti.rk25finalexam.service.AccountCriteriaCompiler;
+import com.vti.rk25finalexam.spec.Expression;
+import com.vti.rk25finalexam.spec.Spec;
+import com.vti.rk25finalexam.spec.filter.IntegerFilter;
+import com.vti.rk25finalexam.spec.filter.StringFilter;
+import java.util.concurrent.TimeUnit;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Dựng predicate cho một request lọc account: Spec.toPredicate trực tiếp và qua AccountCriteriaCompiler.
+ * Mỗi lần đo tạo CriteriaQuery + Root mới như repository làm.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SpecBenchmark {
+
+    private CriteriaBuilder criteriaBuilder;
+
+    private Spec<Account> equalsSpec;
+
+    private Spec<Account> containsSpec;
+
+    private AccountCriteriaCompiler criteriaCompiler;
+
+    private AccountCriteria criteria;
+
+    @Setup
+    public void setUp(AppState app) {
+        criteriaBuilder = app.entityManager.getCriteriaBuilder();
+        equalsSpec = new Spec<>(new Expression(ACCOUNT.ROLE, OPERATOR.EQUALS, "ADMIN"));
+        containsSpec = new Spec<>(new Expression(ACCOUNT.USERNAME, OPERATOR.CONTAINS, "user"));
+        criteriaCompiler = new AccountCriteriaCompiler();
+        StringFilter usernameFilter = new StringFilter();
+        usernameFilter.setContains("user");
+        IntegerFilter idFilter = new IntegerFilter();
+        idFilter.setGreaterThan(100);
+        criteria = new AccountCriteria();
+        criteria.setUsername(usernameFilter);
+        criteria.setId(idFilter);
+    }
+
+    @Benchmark
+    public Predicate specEquals() {
+        return toPredicate(equalsSpec);
+    }
+
+    @Benchmark
+    public Predicate specContains() {
+        return toPredicate(containsSpec);
+    }
+
+    @Benchmark
+    public Predicate criteriaStringAndInteger() {
+        return toPredicate(criteriaCompiler.compile(criteria));
+    }
+
+    private Predicate toPredicate(Specification<Account> spec) {
+        CriteriaQuery<Account> query = criteriaBuilder.createQuery(Account.class);
+        Root<Account> root = query.from(Account.class);
+        return spec.toPredicate(root, query, criteriaBuilder);
+    }
+}
@@ -0,0 +1,58 @@
+package com.vti.rk25finalexam.benchmark;
+
+import com.vti.rk25finalexam.exception.RK25Exception;
+import com.vti.rk25finalexam.exception.Rk25Error;
+import com.vti.rk25finalexam.utils.HttpUtils;
+import com.vti.rk25finalexam.utils.Utils;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UtilsBenchmark {
+
+    private static final Locale VI = new Locale("vi");
+
+    private HttpUtils httpUtils;
+
+    private String digits = "123456";
+
+    private String notDigits = "user123";
+
+    @Setup
+    public void setUp(AppState app) {
+        httpUtils = app.getBean(HttpUtils.class);
+    }
+
+    @Benchmark
+    public Boolean checkStringAsDigit() {
+        return Utils.checkStringAsDigit(digits);
+    }
+
+    @Benchmark
+    public Boolean checkStringAsDigitRejects() {
+        return Utils.checkStringAsDigit(notDigits);
+    }
+
+    // message được ghi vào Rk25Error sau lần đầu nên mỗi lần đo dùng một lỗi mới
+    @Benchmark
+    public Rk25Error populateMessage() {
+        return httpUtils.populateMessage(
+            new RK25Exception().rk25Error(new Rk25Error().code("account.role.isNotValid").param("OWNER")),
+            VI);
+    }
+}
@@ -0,0 +1,44 @@
+package com.vti.rk25finalexam.loadtest;
+
+import java.util.Random;
+
+/**
+ * Khoảng id / username đã seed, để client chọn ngẫu nhiên bản ghi có thật.
+ */
+class Dataset {
+
+    private final int firstDepartmentId;
+
+    private final int departments;
+
+    private final int firstAccountId;
+
+    private final int accounts;
+
+    Dataset(int firstDepartmentId, int departments, int firstAccountId, int accounts) {
+        this.firstDepartmentId = firstDepartmentId;
+        this.departments = departments;
+        this.firstAccountId = firstAccountId;
+        this.accounts = accounts;
+    }
+
+    static String username(int index) {
+        return "user" + index;
+    }
+
+    int departmentId(Random random) {
+        return firstDepartmentId + random.nextInt(departments);
+    }
+
+    int accountId(Random random) {
+        return firstAccountId + random.nextInt(accounts);
+    }
+
+    String username(Random random) {
+        return username(random.nextInt(accounts));
+    }
+
+    int accounts() {
+        return accounts;
+    }
+}
@@ -0,0 +1,133 @@
+package com.vti.rk25finalexam.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.time.Duration;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Các request trong traffic mix, weight mặc định xấp xỉ tỉ lệ đọc/ghi của production.
+ * Không có DELETE để dữ liệu không cạn dần trong lúc chạy.
+ */
+enum Endpoint {
+
+    ACCOUNT_LIST("accounts.list", 20, true) {
+        @Override
+        HttpRequest.Builder request(String baseUrl, Dataset dataset, Random random) {
+            int pages = Math.max(1, dataset.accounts() / PAGE_SIZE);
+            return get(baseUrl + "/api/v1/accounts?size=" + PAGE_SIZE + "&page=" + random.nextInt(pages));
+        }
+    },
+
+    ACCOUNT_SEARCH("accounts.search", 10, true) {
+        @Override
+        HttpRequest.Builder request(String baseUrl, Dataset dataset, Random random) {
+            String lastName = Seeder.LAST_NAMES[random.nextInt(Seeder.LAST_NAMES.length)];
+            String fragment = lastName.substring(0, Math.min(3, lastName.length()));
+            return get(baseUrl + "/api/v1/accounts?size=" + PAGE_SIZE + "&search.contains=" + fragment);
+        }
+    },
+
+    ACCOUNT_FILTER("accounts.filter", 10, true) {
+        @Override
+        HttpRequest.Builder request(String baseUrl, Dataset dataset, Random random) {
+            return get(baseUrl + "/api/v1/accounts?count=none&size=" + PAGE_SIZE
+                + "&lastName.equals=" + Seeder.LAST_NAMES[random.nextInt(Seeder.LAST_NAMES.length)]
+                + "&role.equals=" + Seeder.ROLES[random.nextInt(Seeder.ROLES.length)]);
+        }
+    },
+
+    ACCOUNT_BY_USERNAME("accounts.byUsername", 20, true) {
+        @Override
+        HttpRequest.Builder request(String baseUrl, Dataset dataset, Random random) {
+            return get(baseUrl + "/api/v1/accounts/username/" + dataset.username(random));
+        }
+    },
+
+    ACCOUNT_CREATE("accounts.create", 5, false) {
+        @Override
+        HttpRequest.Builder request(String baseUrl, Dataset dataset, Random random) {
+            String body = "{\"username\":\"load" + CREATED.incrementAndGet() + "\","
+                + "\"firstName\":\"" + Seeder.FIRST_NAMES[random.nextInt(Seeder.FIRST_NAMES.length)] + "\","
+                + "\"lastName\":\"" + Seeder.LAST_NAMES[random.nextInt(Seeder.LAST_NAMES.length)] + "\","
+                + "\"role\":\"EMPLOYEE\",\"departmentId\":" + dataset.departmentId(random) + "}";
+            return json(baseUrl + "/api/v1/accounts").POST(BodyPublishers.ofString(body));
+        }
+    },
+
+    ACCOUNT_PATCH("accounts.patch", 5, false) {
+        @Override
+        HttpRequest.Builder request(String baseUrl, Dataset dataset, Random random) {
+            String body = "{\"firstName\":\"" + Seeder.FIRST_NAMES[random.nextInt(Seeder.FIRST_NAMES.length)] + "\"}";
+            return json(baseUrl + "/api/v1/accounts/" + dataset.accountId(random))
+                .method("PATCH", BodyPublishers.ofString(body));
+        }
+    },
+
+    DEPARTMENT_LIST("departments.list", 15, false) {
+        @Override
+        HttpRequest.Builder request(String baseUrl, Dataset dataset, Random random) {
+            return get(baseUrl + "/api/v1/departments");
+        }
+    },
+
+    DEPARTMENT_GET("departments.get", 15, false) {
+        @Override
+        HttpRequest.Builder request(String baseUrl, Dataset dataset, Random random) {
+            return get(baseUrl + "/api/v1/departments/" + dataset.departmentId(random));
+        }
+    };
+
+    private static final int PAGE_SIZE = 20;
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    // username của account tạo trong lúc chạy, không trùng với user<i> đã seed
+    private static final AtomicInteger CREATED = new AtomicInteger();
+
+    private final String key;
+
+    private final int defaultWeight;
+
+    // có API tương ứng trên ReactiveApiServer (-stack reactive)
+    private final boolean reactive;
+
+    Endpoint(String key, int defaultWeight, boolean reactive) {
+        this.key = key;
+        this.defaultWeight = defaultWeight;
+        this.reactive = reactive;
+    }
+
+    abstract HttpRequest.Builder request(String baseUrl, Dataset dataset, Random random);
+
+    String key() {
+        return key;
+    }
+
+    int defaultWeight() {
+        return defaultWeight;
+    }
+
+    boolean reactive() {
+        return reactive;
+    }
+
+    static Endpoint of(String key) {
+        for (Endpoint endpoint : values()) {
+            if (endpoint.key.equals(key)) {
+                return endpoint;
+            }
+        }
+        throw new IllegalArgumentException("Unknown endpoint " + key);
+    }
+
+    private static HttpRequest.Builder get(String url) {
+        return HttpRequest.newBuilder(URI.create(url)).timeout(TIMEOUT).GET();
+    }
+
+    private static HttpRequest.Builder json(String url) {
+        return HttpRequest.newBuilder(URI.create(url)).timeout(TIMEOUT).header("Content-Type", "application/json");
+    }
+}
@@ -0,0 +1,43 @@
+package com.vti.rk25finalexam.loadtest;
+
+import java.util.concurrent.atomic.LongAdder;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+/**
+ * Latency (micro giây) và số lỗi của một endpoint, ghi được từ nhiều client cùng lúc.
+ * {@link #interval()} lấy dữ liệu từ lần gọi trước tới giờ.
+ */
+class EndpointStats {
+
+    private final Recorder recorder = new Recorder(3);
+
+    private final LongAdder errors = new LongAdder();
+
+    void record(long latencyNanos, boolean success) {
+        recorder.recordValue(Math.max(1, latencyNanos / 1000));
+        if (!success) {
+            errors.increment();
+        }
+    }
+
+    void error() {
+        errors.increment();
+    }
+
+    Interval interval() {
+        return new Interval(recorder.getIntervalHistogram(), errors.sumThenReset());
+    }
+
+    static class Interval {
+
+        final Histogram histogram;
+
+        final long errors;
+
+        Interval(Histogram histogram, long errors) {
+            this.histogram = histogram;
+            this.errors = errors;
+        }
+    }
+}
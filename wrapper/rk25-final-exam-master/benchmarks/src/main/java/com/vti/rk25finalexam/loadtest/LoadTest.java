@@ -0,0 +1,331 @@
+package com.vti.rk25finalexam.loadtest;
+
+import com.vti.rk25finalexam.Rk25FinalExamApplication;
+import com.vti.rk25finalexam.reactive.ReactiveApiServer;
+import com.vti.rk25finalexam.utils.VirtualThreads;
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Load test end-to-end: chạy app thật (Tomcat, Hibernate, cache, search index) trên H2 chế độ MySQL,
+ * seed dữ liệu giả, rồi nhiều client HTTP gửi traffic trộn vào AccountController / DepartmentController.
+ * <pre>
+ *   -accounts &lt;n&gt;            số account seed, mặc định 10000
+ *   -departments &lt;n&gt;         số department seed, mặc định 50
+ *   -clients &lt;n,..&gt;          số client, mỗi client tối đa một request đang chờ, mặc định 32; nhiều giá trị
+ *                             (vd: 1000,2000,5000,10000) chạy lần lượt từng mức, mỗi mức một report -c&lt;n&gt;.json
+ *   -rate &lt;req/s&gt;            tổng số request mỗi giây theo lịch cố định, chia đều cho các client, mặc định 100
+ *   -warmup &lt;giây&gt;           thời gian warmup, không tính vào kết quả, mặc định 10
+ *   -duration &lt;giây&gt;         thời gian đo, mặc định 30
+ *   -mix &lt;endpoint=weight,..&gt; đổi weight, vd: accounts.create=0,departments.list=40
+ *   -report &lt;file&gt;           file kết quả JSON, mặc định target/loadtest-report.json
+ *   -compare &lt;file&gt;          so với report của lần chạy trước
+ *   -stack &lt;servlet|reactive&gt; reactive: các endpoint đọc account gửi tới API WebFlux + R2DBC
+ *                             (app.reactive.*), ghi và department vẫn qua servlet; mặc định servlet
+ *   --&lt;spring property&gt;=..   truyền thẳng cho app, vd: --spring.datasource.hikari.maximum-pool-size=20
+ * </pre>
+ * Client và server chạy chung một JVM nên con số dùng để so sánh giữa các lần chạy trên cùng máy,
+ * không phải capacity tuyệt đối.
+ * <p>
+ * Tải theo tốc độ cố định (không closed loop): latency tính từ thời điểm request lẽ ra được gửi theo lịch,
+ * nên khi server nghẽn, thời gian các request sau phải chờ cũng được tính (không coordinated omission).
+ * -rate lớn hơn sức chịu của server thì latency tăng dần theo thời gian đo, Req/s là số server xử lý được.
+ * <p>
+ * So sánh thread-per-request với virtual thread (Java 21+), mỗi mode một lần chạy:
+ * <pre>
+ *   -clients 1000,2000,5000,10000 -rate 500 -report target/platform.json --server.tomcat.max-connections=20000
+ *   -clients 1000,2000,5000,10000 -rate 500 -compare target/platform.json --server.tomcat.max-connections=20000
+ *       --app.request-execution.mode=virtual
+ * </pre>
+ * Trên Java 21+ client cũng chạy trên virtual thread. Mỗi client giữ 2 socket (client + server) trong
+ * cùng process: 10000 client cần ulimit -n trên 20000.
+ * <p>
+ * So sánh API đọc servlet với reactive:
+ * <pre>
+ *   -clients 200,1000 -report target/servlet.json
+ *   -clients 200,1000 -compare target/servlet.json -stack reactive
+ * </pre>
+ */
+public class LoadTest {
+
+    private static final String[] DATABASE = {
+        "--spring.datasource.url=jdbc:h2:mem:loadtest;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "--spring.datasource.username=sa",
+        "--spring.datasource.password=",
+        "--spring.jpa.show-sql=false",
+        "--logging.level.root=warn",
+        "--logging.level.org.hibernate.SQL=warn",
+        "--spring.main.banner-mode=off",
+        // H2 không nhận fetch size âm (MySQL streaming)
+        "--app.export.fetch-size=1000"
+    };
+
+    private static final int DRAIN_SECONDS = 30;
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private static final String[] REACTIVE = {
+        "--app.reactive.enabled=true",
+        "--app.reactive.port=0",
+        "--app.reactive.url=r2dbc:h2:mem:///loadtest?options=MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1"
+    };
+
+    public static void main(String[] args) throws Exception {
+        int accounts = 10_000;
+        int departments = 50;
+        int[] clientSteps = {32};
+        double rate = 100;
+        int warmup = 10;
+        int duration = 30;
+        Path report = Paths.get("target", "loadtest-report.json");
+        Path compare = null;
+        boolean reactive = false;
+        Map<Endpoint, Integer> weights = new EnumMap<>(Endpoint.class);
+        Arrays.stream(Endpoint.values()).forEach(endpoint -> weights.put(endpoint, endpoint.defaultWeight()));
+        List<String> appArgs = new ArrayList<>();
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "-accounts":
+                    accounts = Integer.parseInt(args[++i]);
+                    break;
+                case "-departments":
+                    departments = Integer.parseInt(args[++i]);
+                    break;
+                case "-clients":
+                    clientSteps = Arrays.stream(args[++i].split(","))
+                        .mapToInt(step -> Integer.parseInt(step.trim()))
+                        .toArray();
+                    break;
+                case "-rate":
+                    rate = Double.parseDouble(args[++i]);
+                    break;
+                case "-warmup":
+                    warmup = Integer.parseInt(args[++i]);
+                    break;
+                case "-duration":
+                    duration = Integer.parseInt(args[++i]);
+                    break;
+                case "-mix":
+                    for (String entry : args[++i].split(",")) {
+                        String[] keyValue = entry.split("=");
+                        weights.put(Endpoint.of(keyValue[0].trim()), Integer.parseInt(keyValue[1].trim()));
+                    }
+                    break;
+                case "-report":
+                    report = Paths.get(args[++i]);
+                    break;
+                case "-compare":
+                    compare = Paths.get(args[++i]);
+                    break;
+                case "-stack":
+                    String stack = args[++i];
+                    if (!stack.equals("servlet") && !stack.equals("reactive")) {
+                        throw new IllegalArgumentException("Unknown stack " + stack);
+                    }
+                    reactive = stack.equals("reactive");
+                    break;
+                default:
+                    if (!args[i].startsWith("--")) {
+                        throw new IllegalArgumentException("Unknown option " + args[i]);
+                    }
+                    appArgs.add(args[i]);
+            }
+        }
+
+        long seedStart = System.nanoTime();
+        Dataset dataset = seed(departments, accounts, appArgs);
+        System.out.printf("Seeded %d departments, %d accounts in %d ms%n",
+            departments, accounts, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - seedStart));
+
+        try (ConfigurableApplicationContext context = start(appArgs, reactive)) {
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            String reactiveUrl = reactive
+                ? "http://localhost:" + context.getBean(ReactiveApiServer.class).getPort()
+                : null;
+            for (int clients : clientSteps) {
+                Measurement result = run(baseUrl, reactiveUrl, dataset, weights, clients, rate, warmup, duration);
+
+                Report loadTestReport = new Report(result.stats, result.seconds);
+                loadTestReport.config("accounts", accounts)
+                    .config("departments", departments)
+                    .config("clients", clients)
+                    .config("rate", rate)
+                    .config("clientThreads", VirtualThreads.isSupported() ? "virtual" : "platform")
+                    .config("stack", reactive ? "reactive" : "servlet")
+                    .config("warmupSeconds", warmup)
+                    .config("durationSeconds", duration)
+                    .config("mix", Report.mix(weights))
+                    .config("appArgs", appArgs);
+                loadTestReport.print();
+                Path stepReport = clientSteps.length > 1 ? step(report, clients) : report;
+                loadTestReport.write(stepReport);
+                System.out.println("Report saved to " + stepReport.toAbsolutePath());
+                if (compare != null) {
+                    loadTestReport.compare(clientSteps.length > 1 ? step(compare, clients) : compare);
+                }
+            }
+        }
+    }
+
+    // target/platform.json -> target/platform-c1000.json
+    private static Path step(Path report, int clients) {
+        String name = report.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        String stepName = dot < 0
+            ? name + "-c" + clients
+            : name.substring(0, dot) + "-c" + clients + name.substring(dot);
+        return report.resolveSibling(stepName);
+    }
+
+    // seed bằng một context riêng (không web) rồi đóng lại; DB_CLOSE_DELAY=-1 giữ DB trong JVM.
+    // Context chạy load test khởi động sau nên search index, username filter, department cache
+    // được nạp từ dữ liệu đã seed như khi chạy thật
+    private static Dataset seed(int departments, int accounts, List<String> appArgs) {
+        List<String> args = new ArrayList<>(Arrays.asList(DATABASE));
+        args.add("--spring.jpa.hibernate.ddl-auto=create");
+        args.add("--app.search.index.enabled=false");
+        args.add("--app.username-filter.enabled=false");
+        args.addAll(appArgs);
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(Rk25FinalExamApplication.class)
+            .web(WebApplicationType.NONE)
+            .run(args.toArray(new String[0]))) {
+            return new Seeder(context.getBean(JdbcTemplate.class))
+                .seed(departments, accounts);
+        }
+    }
+
+    // API reactive chỉ bật ở context chạy load test, context seed không mở port
+    private static ConfigurableApplicationContext start(List<String> appArgs, boolean reactive) {
+        List<String> args = new ArrayList<>(Arrays.asList(DATABASE));
+        args.add("--spring.jpa.hibernate.ddl-auto=none");
+        args.add("--server.port=0");
+        if (reactive) {
+            args.addAll(Arrays.asList(REACTIVE));
+        }
+        args.addAll(appArgs);
+        return new SpringApplicationBuilder(Rk25FinalExamApplication.class)
+            .web(WebApplicationType.SERVLET)
+            .run(args.toArray(new String[0]));
+    }
+
+    // reactiveUrl null -> mọi request gửi tới servlet.
+    // Client i gửi theo lịch cố định, cách nhau clients / rate giây, latency = lúc xong - lúc lẽ ra phải gửi.
+    // Chỉ request có lịch trong khoảng đo được ghi; hết giờ đo client gửi nốt các request đã tới lịch,
+    // quá DRAIN_SECONDS thì phần chưa gửi tính là lỗi
+    private static Measurement run(
+        String baseUrl,
+        String reactiveUrl,
+        Dataset dataset,
+        Map<Endpoint, Integer> weights,
+        int clients,
+        double rate,
+        int warmup,
+        int duration
+    ) throws InterruptedException {
+        Map<Endpoint, EndpointStats> stats = new EnumMap<>(Endpoint.class);
+        Endpoint[] mix = weights.entrySet().stream()
+            .filter(entry -> entry.getValue() > 0)
+            .flatMap(entry -> Collections.nCopies(entry.getValue(), entry.getKey()).stream())
+            .toArray(Endpoint[]::new);
+        Arrays.stream(mix).distinct().forEach(endpoint -> stats.put(endpoint, new EndpointStats()));
+
+        HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) * clients / rate);
+        long begin = System.nanoTime();
+        long measureStart = begin + TimeUnit.SECONDS.toNanos(warmup);
+        long measureEnd = measureStart + TimeUnit.SECONDS.toNanos(duration);
+        long drainEnd = measureEnd + TimeUnit.SECONDS.toNanos(DRAIN_SECONDS);
+        AtomicLong lastCompletion = new AtomicLong(measureEnd);
+
+        // hàng nghìn client: platform thread tốn stack và context switch, làm méo kết quả phía server
+        ExecutorService executor = VirtualThreads.isSupported()
+            ? VirtualThreads.newThreadPerTaskExecutor("client-")
+            : Executors.newFixedThreadPool(clients);
+        for (int i = 0; i < clients; i++) {
+            Random random = new Random(i);
+            // lệch pha đều giữa các client để tổng tải trải đều trong mỗi chu kỳ
+            long first = begin + intervalNanos * i / clients;
+            executor.execute(() -> {
+                for (long scheduled = first; scheduled < measureEnd; scheduled += intervalNanos) {
+                    Endpoint endpoint = mix[random.nextInt(mix.length)];
+                    boolean measured = scheduled >= measureStart;
+                    try {
+                        long wait = scheduled - System.nanoTime();
+                        if (wait > 0) {
+                            TimeUnit.NANOSECONDS.sleep(wait);
+                        } else if (System.nanoTime() > drainEnd) {
+                            if (measured) {
+                                stats.get(endpoint).error();
+                            }
+                            continue;
+                        }
+                        String url = reactiveUrl != null && endpoint.reactive() ? reactiveUrl : baseUrl;
+                        int status = httpClient.send(
+                            endpoint.request(url, dataset, random).timeout(REQUEST_TIMEOUT).build(),
+                            BodyHandlers.discarding()).statusCode();
+                        long done = System.nanoTime();
+                        if (measured) {
+                            stats.get(endpoint).record(done - scheduled, status < 400);
+                            lastCompletion.accumulateAndGet(done, Math::max);
+                        }
+                    } catch (IOException e) {
+                        if (measured) {
+                            stats.get(endpoint).error();
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+            });
+        }
+
+        System.out.printf("Warming up %d clients at %.0f req/s for %d s%n", clients, rate, warmup);
+        TimeUnit.NANOSECONDS.sleep(measureStart - System.nanoTime());
+        System.out.printf("Measuring for %d s%n", duration);
+        executor.shutdown();
+        if (!executor.awaitTermination(duration + DRAIN_SECONDS + REQUEST_TIMEOUT.getSeconds(), TimeUnit.SECONDS)) {
+            executor.shutdownNow();
+        }
+
+        Map<Endpoint, EndpointStats.Interval> result = new EnumMap<>(Endpoint.class);
+        stats.forEach((endpoint, endpointStats) -> result.put(endpoint, endpointStats.interval()));
+        // server không theo kịp lịch thì các request cuối xong sau giờ đo: Req/s tính tới request cuối cùng
+        return new Measurement(result, (lastCompletion.get() - measureStart) / 1e9);
+    }
+
+    private static class Measurement {
+
+        private final Map<Endpoint, EndpointStats.Interval> stats;
+
+        private final double seconds;
+
+        private Measurement(Map<Endpoint, EndpointStats.Interval> stats, double seconds) {
+            this.stats = stats;
+            this.seconds = seconds;
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.vti.rk25finalexam.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Kết quả load test dạng JSON:
+ * <pre>
+ * { "createdAt", "config": {...},
+ *   "total":     { "requests", "errors", "throughput", "latencyMs": { "mean", "p50", "p95", "p99", "p999", "max" } },
+ *   "endpoints": { "accounts.list": { ...như total... }, ... } }
+ * </pre>
+ */
+class Report {
+
+    private static final double[] PERCENTILES = {50, 95, 99, 99.9};
+
+    private static final String[] PERCENTILE_KEYS = {"p50", "p95", "p99", "p999"};
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private final Map<String, Object> config = new LinkedHashMap<>();
+
+    private final Map<String, Map<String, Object>> endpoints = new LinkedHashMap<>();
+
+    private final Map<String, Object> total;
+
+    Report(Map<Endpoint, EndpointStats.Interval> result, double seconds) {
+        Histogram all = new Histogram(3);
+        long errors = 0;
+        for (Map.Entry<Endpoint, EndpointStats.Interval> entry : result.entrySet()) {
+            EndpointStats.Interval interval = entry.getValue();
+            endpoints.put(entry.getKey().key(), summary(interval.histogram, interval.errors, seconds));
+            all.add(interval.histogram);
+            errors += interval.errors;
+        }
+        total = summary(all, errors, seconds);
+    }
+
+    static Map<String, Integer> mix(Map<Endpoint, Integer> weights) {
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        weights.forEach((endpoint, weight) -> mix.put(endpoint.key(), weight));
+        return mix;
+    }
+
+    Report config(String key, Object value) {
+        config.put(key, value);
+        return this;
+    }
+
+    void write(Path file) throws IOException {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("createdAt", OffsetDateTime.now().toString());
+        json.put("config", config);
+        json.put("total", total);
+        json.put("endpoints", endpoints);
+        if (file.toAbsolutePath().getParent() != null) {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+        }
+        OBJECT_MAPPER.writeValue(file.toFile(), json);
+    }
+
+    void print() {
+        System.out.println();
+        System.out.printf("%-22s %9s %7s %10s %9s %9s %9s %9s %9s%n",
+            "Endpoint", "Requests", "Errors", "Req/s", "p50 ms", "p95 ms", "p99 ms", "p999 ms", "max ms");
+        endpoints.forEach(Report::printRow);
+        printRow("total", total);
+    }
+
+    // chỉ in chênh lệch, không fail: load test trên máy dev dao động nhiều hơn JMH
+    void compare(Path file) throws IOException {
+        JsonNode previous = OBJECT_MAPPER.readTree(file.toFile());
+        System.out.println();
+        System.out.printf("%-22s %12s %12s %8s %10s %10s %8s%n",
+            "Compared to " + file.getFileName(), "Req/s before", "Req/s now", "Change", "p99 before", "p99 now", "Change");
+        endpoints.forEach((key, now) -> printChange(key, previous.path("endpoints").path(key), now));
+        printChange("total", previous.path("total"), total);
+    }
+
+    private static Map<String, Object> summary(Histogram histogram, long errors, double seconds) {
+        Map<String, Object> latency = new LinkedHashMap<>();
+        latency.put("mean", millis(histogram.getMean()));
+        for (int i = 0; i < PERCENTILES.length; i++) {
+            latency.put(PERCENTILE_KEYS[i], millis(histogram.getValueAtPercentile(PERCENTILES[i])));
+        }
+        latency.put("max", millis(histogram.getMaxValue()));
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("requests", histogram.getTotalCount());
+        summary.put("errors", errors);
+        summary.put("throughput", Math.round(histogram.getTotalCount() * 10.0 / seconds) / 10.0);
+        summary.put("latencyMs", latency);
+        return summary;
+    }
+
+    // histogram ghi micro giây
+    private static double millis(double micros) {
+        return Math.round(micros) / 1000.0;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void printRow(String key, Map<String, Object> summary) {
+        Map<String, Object> latency = (Map<String, Object>) summary.get("latencyMs");
+        System.out.printf("%-22s %9d %7d %10.1f %9.3f %9.3f %9.3f %9.3f %9.3f%n",
+            key, summary.get("requests"), summary.get("errors"), summary.get("throughput"),
+            latency.get("p50"), latency.get("p95"), latency.get("p99"), latency.get("p999"), latency.get("max"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void printChange(String key, JsonNode before, Map<String, Object> now) {
+        if (before.isMissingNode()) {
+            System.out.printf("%-22s %12s%n", key, "-");
+            return;
+        }
+        double throughputBefore = before.path("throughput").asDouble();
+        double throughputNow = (Double) now.get("throughput");
+        double p99Before = before.path("latencyMs").path("p99").asDouble();
+        double p99Now = (Double) ((Map<String, Object>) now.get("latencyMs")).get("p99");
+        System.out.printf("%-22s %12.1f %12.1f %+7.1f%% %10.3f %10.3f %+7.1f%%%n",
+            key, throughputBefore, throughputNow, change(throughputBefore, throughputNow),
+            p99Before, p99Now, change(p99Before, p99Now));
+    }
+
+    private static double change(double before, double now) {
+        return before == 0 ? 0 : (now - before) * 100 / before;
+    }
+}
@@ -0,0 +1,83 @@
+package com.vti.rk25finalexam.loadtest;
+
+import com.vti.rk25finalexam.common.Constants.IS_DELETED;
+import com.vti.rk25finalexam.common.Constants.ROLE;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Sinh dữ liệu giả bằng JDBC batch, id gán tường minh tiếp sau id lớn nhất (AUTO_INCREMENT tự nhảy theo).
+ * Seed cố định nên hai lần chạy cùng tham số có cùng dữ liệu.
+ */
+class Seeder {
+
+    static final String[] FIRST_NAMES = {
+        "An", "Binh", "Chi", "Dung", "Giang", "Hoa", "Khanh", "Linh", "Minh", "Nam",
+        "Phuong", "Quang", "Son", "Thao", "Trang", "Tuan", "Uyen", "Viet", "Xuan", "Yen"
+    };
+
+    static final String[] LAST_NAMES = {
+        "Nguyen", "Tran", "Le", "Pham", "Hoang", "Huynh", "Phan", "Vu", "Vo", "Dang",
+        "Bui", "Do", "Ho", "Ngo", "Duong", "Ly"
+    };
+
+    static final String[] ROLES = {ROLE.EMPLOYEE, ROLE.EMPLOYEE, ROLE.EMPLOYEE, ROLE.MANAGER, ROLE.ADMIN};
+
+    private static final String INSERT_DEPARTMENT =
+        "insert into department (id, name, total_member, type, created_date) values (?, ?, ?, ?, ?)";
+
+    private static final String INSERT_ACCOUNT =
+        "insert into account (id, username, first_name, last_name, role, department_id, is_deleted) "
+            + "values (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final int BATCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    Seeder(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    Dataset seed(int departments, int accounts) {
+        Random random = new Random(42);
+
+        int firstDepartmentId = nextId("department");
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(departments);
+        for (int i = 0; i < departments; i++) {
+            rows.add(new Object[]{firstDepartmentId + i, "Department " + i, accounts / departments, "DEV", now});
+        }
+        jdbcTemplate.batchUpdate(INSERT_DEPARTMENT, rows);
+
+        int firstAccountId = nextId("account");
+        rows = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < accounts; i++) {
+            rows.add(new Object[]{
+                firstAccountId + i,
+                Dataset.username(i),
+                FIRST_NAMES[random.nextInt(FIRST_NAMES.length)],
+                LAST_NAMES[random.nextInt(LAST_NAMES.length)],
+                ROLES[random.nextInt(ROLES.length)],
+                firstDepartmentId + random.nextInt(departments),
+                IS_DELETED.FALSE
+            });
+            if (rows.size() == BATCH_SIZE) {
+                jdbcTemplate.batchUpdate(INSERT_ACCOUNT, rows);
+                rows.clear();
+            }
+        }
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_ACCOUNT, rows);
+        }
+
+        return new Dataset(firstDepartmentId, departments, firstAccountId, accounts);
+    }
+
+    private int nextId(String table) {
+        return jdbcTemplate.queryForObject("select coalesce(max(id), 0) + 1 from " + table, Integer.class);
+    }
+}
@@ -3,8 +3,14 @@ package com.vti.rk25finalexam;
 import com.vti.rk25finalexam.entity.Account;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcTransactionManagerAutoConfiguration;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
-@SpringBootApplication
+// R2DBC chỉ dùng cho API reactive (ReactiveApiConfiguration, app.reactive.enabled): không tự tạo ConnectionFactory
+// (cần spring.r2dbc.url) và R2dbcTransactionManager (trùng với JpaTransactionManager khi resolve @Transactional)
+@SpringBootApplication(exclude = {R2dbcAutoConfiguration.class, R2dbcTransactionManagerAutoConfiguration.class})
+@EnableScheduling
 public class Rk25FinalExamApplication {
 
     public static void main(String[] args) {
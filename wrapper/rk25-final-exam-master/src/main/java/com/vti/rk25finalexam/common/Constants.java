@@ -19,8 +19,36 @@ public class Constants {
         String FIRST_NAME = "firstName";
         String LAST_NAME = "lastName";
         String ROLE = "role";
+        String DEPARTMENT_ID = "departmentId";
+        String DEPARTMENT_NAME = "departmentName";
     }
 
+    public interface ACCOUNT_FIELDS {
+        String PARAM = "fields";
+        String FILTER = "accountFields";
+        String REQUEST_ATTRIBUTE = "com.vti.rk25finalexam.spec.AccountFields";
+        String DEPT_ID = "deptId";
+        String DEPT_NAME = "deptName";
+    }
+
+
+    public interface COUNT_MODE {
+        String PARAM = "count";
+        String NONE = "none";
+        String PARALLEL = "parallel";
+        // keyset: trang đầu khi chưa có after
+        String CURSOR = "cursor";
+    }
+
+    public interface IMPORT_STATUS {
+        String CREATED = "CREATED";
+        String FAILED = "FAILED";
+    }
+
+    public interface EXPORT_FORMAT {
+        String NDJSON = "ndjson";
+        String CSV = "csv";
+    }
 
     public interface OPERATOR {
         String NOT_EQUALS = "notEquals";
@@ -31,6 +59,23 @@ public class Constants {
         String GREATER_THAN_OR_EQUALS = "greaterThanOrEquals";
         String LESS_THAN = "lessThan";
         String LESS_THAN_OR_EQUALS = "lessThanOrEquals";
+        String IN = "in";
+        String NOT_IN = "notIn";
+        String BETWEEN = "between";
+    }
+
+    public interface FILTER {
+        String AND = "AND";
+        String OR = "OR";
+        String NOT = "NOT";
+    }
+
+    public interface SQL_ACCOUNTING {
+        String HEADER_QUERY_COUNT = "X-Query-Count";
+        String HEADER_DB_TIME = "X-DB-Time";
+        String HEADER_DB_ROWS = "X-DB-Rows";
+        String HEADER_N_PLUS_ONE = "X-N-Plus-One";
+        String REQUEST_ATTRIBUTE = "com.vti.rk25finalexam.sql.SqlAccounting";
     }
 
 
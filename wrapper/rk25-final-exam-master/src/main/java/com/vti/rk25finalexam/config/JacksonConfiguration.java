@@ -0,0 +1,19 @@
+package com.vti.rk25finalexam.config;
+
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class JacksonConfiguration {
+
+    // AccountDTO có @JsonFilter: ngoài response có ?fields=..., mọi nơi dùng ObjectMapper
+    // (response, export ndjson, API reactive) vẫn serialize đủ field
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer defaultJsonFilter() {
+        return builder -> builder.filters(new SimpleFilterProvider()
+                .setDefaultFilter(SimpleBeanPropertyFilter.serializeAll()));
+    }
+}
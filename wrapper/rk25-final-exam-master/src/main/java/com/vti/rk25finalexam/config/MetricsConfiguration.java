@@ -0,0 +1,48 @@
+package com.vti.rk25finalexam.config;
+
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.boot.actuate.metrics.web.servlet.WebMvcTagsContributor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.method.HandlerMethod;
+
+@Configuration
+public class MetricsConfiguration {
+
+    private static final Tag NO_HANDLER = Tag.of("handler", "none");
+
+    // thêm tag handler=AccountController.getAll vào http.server.requests: timer theo từng controller method,
+    // tách được các method dùng chung uri (vd: GET /api/v1/accounts với count=none / after=...)
+    @Bean
+    public WebMvcTagsContributor handlerMethodTagsContributor() {
+        // Tag tạo một lần cho mỗi method, không nối chuỗi trên mỗi request
+        Map<Method, Tag> tags = new ConcurrentHashMap<>();
+        return new WebMvcTagsContributor() {
+            @Override
+            public Iterable<Tag> getTags(
+                HttpServletRequest request,
+                HttpServletResponse response,
+                Object handler,
+                Throwable exception
+            ) {
+                if (!(handler instanceof HandlerMethod)) {
+                    return Tags.of(NO_HANDLER);
+                }
+                Method method = ((HandlerMethod) handler).getMethod();
+                return Tags.of(tags.computeIfAbsent(method, key ->
+                    Tag.of("handler", key.getDeclaringClass().getSimpleName() + "." + key.getName())));
+            }
+
+            @Override
+            public Iterable<Tag> getLongRequestTags(HttpServletRequest request, Object handler) {
+                return Tags.empty();
+            }
+        };
+    }
+}
@@ -0,0 +1,31 @@
+package com.vti.rk25finalexam.config;
+
+import java.util.concurrent.ThreadPoolExecutor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class QueryExecutorConfiguration {
+
+    @Value("${app.query.count-pool-size:4}")
+    private Integer countPoolSize;
+
+    @Value("${app.query.count-queue-capacity:16}")
+    private Integer countQueueCapacity;
+
+    // hàng đợi có giới hạn; đầy thì COUNT chạy ngay trên thread request (tuần tự như ?count mặc định)
+    // thay vì xếp hàng vô hạn chờ connection
+    @Bean
+    public ThreadPoolTaskExecutor countQueryExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(countPoolSize);
+        executor.setMaxPoolSize(countPoolSize);
+        executor.setQueueCapacity(countQueueCapacity);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setThreadNamePrefix("count-query-");
+        executor.initialize();
+        return executor;
+    }
+}
@@ -0,0 +1,75 @@
+package com.vti.rk25finalexam.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vti.rk25finalexam.reactive.AccountSqlCompiler;
+import com.vti.rk25finalexam.reactive.ReactiveAccountHandler;
+import com.vti.rk25finalexam.reactive.ReactiveAccountRepository;
+import com.vti.rk25finalexam.reactive.ReactiveApiServer;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import java.time.Duration;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.util.StringUtils;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+
+// API đọc account non-blocking: WebFlux + R2DBC, chạy song song với API servlet (AccountController)
+// dependency WebFlux / R2DBC là optional: không có trên classpath thì bỏ qua
+@Configuration
+@ConditionalOnProperty(name = "app.reactive.enabled", havingValue = "true")
+@ConditionalOnClass(name = {
+    "org.springframework.web.reactive.function.server.RouterFunction",
+    "org.springframework.r2dbc.core.DatabaseClient",
+    "io.r2dbc.pool.ConnectionPool"})
+public class ReactiveApiConfiguration {
+
+    // pool R2DBC riêng, không dùng chung Hikari; cấu hình thủ công vì R2dbcAutoConfiguration bị tắt.
+    // Pool không đăng ký thành bean: có bean ConnectionFactory thì DataSourceAutoConfiguration sẽ bỏ qua DataSource JDBC
+    @Bean
+    public ReactiveAccountRepository reactiveAccountRepository(
+        @Value("${app.reactive.url}") String url,
+        @Value("${app.reactive.username:${spring.datasource.username:}}") String username,
+        @Value("${app.reactive.password:${spring.datasource.password:}}") String password,
+        @Value("${app.reactive.pool-size:10}") int poolSize
+    ) {
+        ConnectionFactoryOptions.Builder options = ConnectionFactoryOptions.parse(url).mutate();
+        if (StringUtils.hasText(username)) {
+            options.option(ConnectionFactoryOptions.USER, username);
+            options.option(ConnectionFactoryOptions.PASSWORD, password);
+        }
+        ConnectionPool pool = new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options.build()))
+            .name("reactive")
+            .initialSize(0)
+            .maxSize(poolSize)
+            // giống connectionTimeout mặc định của Hikari: chờ pool quá lâu thì lỗi thay vì treo request
+            .maxAcquireTime(Duration.ofSeconds(30))
+            .build());
+        return new ReactiveAccountRepository(pool, new AccountSqlCompiler());
+    }
+
+    // dùng ObjectMapper của app để JSON giống hệt API servlet (deptId, deptName)
+    @Bean
+    public ReactiveApiServer reactiveApiServer(
+        ReactiveAccountRepository reactiveAccountRepository,
+        ObjectMapper objectMapper,
+        @Value("${app.reactive.port:8081}") int port
+    ) {
+        HandlerStrategies strategies = HandlerStrategies.builder()
+            .codecs(codecs -> {
+                codecs.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(objectMapper));
+                codecs.defaultCodecs().jackson2JsonDecoder(new Jackson2JsonDecoder(objectMapper));
+            })
+            .build();
+        return new ReactiveApiServer(
+            RouterFunctions.toHttpHandler(new ReactiveAccountHandler(reactiveAccountRepository).routes(), strategies),
+            port);
+    }
+}
@@ -0,0 +1,100 @@
+package com.vti.rk25finalexam.config;
+
+import com.vti.rk25finalexam.sql.ReadWriteRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+
+// tách đọc/ghi: transaction readOnly đọc từ replica, còn lại ghi vào primary (spring.datasource.*)
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.replica.enabled", havingValue = "true")
+public class ReadReplicaConfiguration {
+
+    @Bean
+    @Primary
+    public DataSource dataSource(
+        DataSourceProperties properties,
+        Environment environment,
+        @Value("${app.datasource.replica.urls}") String[] replicaUrls,
+        @Value("${app.datasource.replica.username:${spring.datasource.username:}}") String replicaUsername,
+        @Value("${app.datasource.replica.password:${spring.datasource.password:}}") String replicaPassword
+    ) {
+        Binder binder = Binder.get(environment);
+
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        configure(primary, "primary", binder);
+
+        List<DataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < replicaUrls.length; i++) {
+            HikariDataSource replica = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .url(replicaUrls[i].trim())
+                .username(StringUtils.hasText(replicaUsername) ? replicaUsername : null)
+                .password(StringUtils.hasText(replicaPassword) ? replicaPassword : null)
+                .build();
+            configure(replica, "replica-" + i, binder);
+            replicas.add(replica);
+        }
+
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(primary, replicas);
+        routing.afterPropertiesSet();
+        // lấy connection thật ở câu lệnh đầu tiên, sau khi transaction đã gắn cờ readOnly
+        return new ClosingLazyConnectionDataSourceProxy(routing);
+    }
+
+    // metrics hikaricp.* (tag pool=primary / replica-i) cho từng pool; auto-config của Boot chỉ thấy pool primary.
+    // gắn sau khi MeterRegistry đã tạo xong, không để dataSource phụ thuộc MeterRegistry (vòng tròn)
+    @Bean
+    public MeterBinder readReplicaPoolMetrics(DataSource dataSource) {
+        return registry -> {
+            try {
+                for (DataSource pool : dataSource.unwrap(ReadWriteRoutingDataSource.class).getDataSources()) {
+                    HikariDataSource hikari = (HikariDataSource) pool;
+                    if (hikari.getMetricRegistry() == null && hikari.getMetricsTrackerFactory() == null) {
+                        hikari.setMetricRegistry(registry);
+                    }
+                }
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        };
+    }
+
+    // dùng chung spring.datasource.hikari.* cho mọi pool
+    private static void configure(HikariDataSource pool, String name, Binder binder) {
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+        pool.setPoolName(name);
+    }
+
+    // đóng các pool Hikari khi context tắt
+    private static class ClosingLazyConnectionDataSourceProxy extends LazyConnectionDataSourceProxy implements Closeable {
+
+        private final ReadWriteRoutingDataSource routing;
+
+        ClosingLazyConnectionDataSourceProxy(ReadWriteRoutingDataSource routing) {
+            super(routing);
+            this.routing = routing;
+        }
+
+        @Override
+        public void close() throws IOException {
+            routing.close();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.vti.rk25finalexam.config;
+
+import com.vti.rk25finalexam.sql.SqlAccountingFilter;
+import com.vti.rk25finalexam.sql.SqlAccountingListener;
+import javax.sql.DataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+// đếm câu SQL / thời gian JDBC / số dòng theo request, trả về trong header X-Query-Count, X-DB-Time, X-DB-Rows
+// X-DB-Rows chỉ có khi app.sql-accounting.count-rows=true (mặc định tắt)
+@Configuration
+@ConditionalOnProperty(name = "app.sql-accounting.enabled", havingValue = "true", matchIfMissing = true)
+public class SqlAccountingConfiguration {
+
+    // bọc DataSource (Hikari) bằng datasource-proxy; ProxyDataSource vẫn unwrap được về HikariDataSource cho metrics
+    @Bean
+    public static BeanPostProcessor sqlAccountingDataSourcePostProcessor(
+        @Value("${app.sql-accounting.count-rows:false}") boolean countRows
+    ) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+                if (!(bean instanceof DataSource) || bean instanceof ProxyDataSource) {
+                    return bean;
+                }
+                SqlAccountingListener listener = new SqlAccountingListener();
+                ProxyDataSourceBuilder builder = ProxyDataSourceBuilder.create(beanName, (DataSource) bean)
+                    .listener(listener);
+                if (countRows) {
+                    // proxy thêm ResultSet để đếm next(): mọi lần next() đi qua proxy, nên chỉ bật khi đo / test
+                    builder.proxyResultSet().methodListener(listener);
+                }
+                return builder.build();
+            }
+        };
+    }
+
+    // bao ngoài mọi filter khác để tính cả query chạy trong filter
+    @Bean
+    public FilterRegistrationBean<SqlAccountingFilter> sqlAccountingFilter(
+        @Value("${app.sql-accounting.n-plus-one-threshold:5}") int nPlusOneThreshold,
+        @Value("${app.sql-accounting.count-rows:false}") boolean countRows
+    ) {
+        FilterRegistrationBean<SqlAccountingFilter> registration =
+            new FilterRegistrationBean<>(new SqlAccountingFilter(nPlusOneThreshold, countRows));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
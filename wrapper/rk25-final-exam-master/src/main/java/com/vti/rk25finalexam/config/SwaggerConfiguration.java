@@ -1,7 +1,13 @@
 package com.vti.rk25finalexam.config;
 
+import java.lang.reflect.Field;
+import java.util.stream.Collectors;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanPostProcessor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfoHandlerMapping;
 import springfox.documentation.builders.PathSelectors;
 import springfox.documentation.builders.RequestHandlerSelectors;
 import springfox.documentation.service.ApiKey;
@@ -10,6 +16,7 @@ import springfox.documentation.service.SecurityReference;
 import springfox.documentation.spi.DocumentationType;
 import springfox.documentation.spi.service.contexts.SecurityContext;
 import springfox.documentation.spring.web.plugins.Docket;
+import springfox.documentation.spring.web.plugins.WebMvcRequestHandlerProvider;
 import springfox.documentation.swagger2.annotations.EnableSwagger2;
 
 import java.util.Collections;
@@ -29,6 +36,29 @@ public class SwaggerConfiguration {
 //            .securitySchemes(apiKeys())
 //            .securityContexts(Collections.singletonList(securityContext()));
     }
+
+    // springfox 2.x không đọc được mapping dùng PathPatternParser (endpoint của actuator) -> bỏ qua các mapping đó
+    @Bean
+    public static BeanPostProcessor springfoxHandlerProviderBeanPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+                if (bean instanceof WebMvcRequestHandlerProvider) {
+                    Field field = ReflectionUtils.findField(bean.getClass(), "handlerMappings");
+                    ReflectionUtils.makeAccessible(field);
+                    List<RequestMappingInfoHandlerMapping> mappings =
+                        (List<RequestMappingInfoHandlerMapping>) ReflectionUtils.getField(field, bean);
+                    List<RequestMappingInfoHandlerMapping> supported = mappings.stream()
+                        .filter(mapping -> mapping.getPatternParser() == null)
+                        .collect(Collectors.toList());
+                    mappings.clear();
+                    mappings.addAll(supported);
+                }
+                return bean;
+            }
+        };
+    }
 //
 //    private List<ApiKey> apiKeys() {
 //        return Collections.singletonList(
@@ -0,0 +1,45 @@
+package com.vti.rk25finalexam.config;
+
+import com.vti.rk25finalexam.utils.VirtualThreads;
+import java.util.concurrent.ExecutorService;
+import javax.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * app.request-execution.mode=virtual: Tomcat xử lý mỗi request trên một virtual thread thay vì pool
+ * server.tomcat.threads.max. Request chờ JDBC không giữ platform thread, số request đồng thời chỉ còn
+ * bị giới hạn bởi server.tomcat.max-connections; truy cập DB bị giới hạn bởi pool Hikari
+ * (maximum-pool-size, request chờ connection tối đa connection-timeout).
+ * <p>
+ * Cần Java 21+. MySQL Connector/J 8.0 và H2 dùng synchronized quanh I/O: trên Java 21-23 virtual thread
+ * bị ghim vào carrier thread khi chờ DB, nên chạy với -Djdk.virtualThreadScheduler.parallelism
+ * không nhỏ hơn maximum-pool-size (hoặc Java 24+).
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "app.request-execution.mode", havingValue = "virtual")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class VirtualThreadConfiguration {
+
+    private final ExecutorService requestExecutor = VirtualThreads.newThreadPerTaskExecutor("http-vt-");
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadProtocolHandlerCustomizer() {
+        return protocolHandler -> {
+            protocolHandler.setExecutor(requestExecutor);
+            log.info("Tomcat requests run on virtual threads");
+        };
+    }
+
+    // Tomcat không đóng executor truyền từ ngoài vào
+    @PreDestroy
+    public void shutdown() {
+        requestExecutor.shutdown();
+    }
+}
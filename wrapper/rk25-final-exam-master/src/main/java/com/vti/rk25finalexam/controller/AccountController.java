@@ -1,25 +1,38 @@
 package com.vti.rk25finalexam.controller;
 
+import com.vti.rk25finalexam.common.Constants.ACCOUNT_FIELDS;
+import com.vti.rk25finalexam.common.Constants.COUNT_MODE;
+import com.vti.rk25finalexam.common.Constants.EXPORT_FORMAT;
 import com.vti.rk25finalexam.entity.Account;
 import com.vti.rk25finalexam.entity.criteria.AccountCriteria;
 import com.vti.rk25finalexam.entity.dto.AccountCreateDTO;
 import com.vti.rk25finalexam.entity.dto.AccountDTO;
+import com.vti.rk25finalexam.entity.dto.AccountBulkUpdateDTO;
 import com.vti.rk25finalexam.entity.dto.AccountUpdateDTO;
+import com.vti.rk25finalexam.entity.dto.BatchResultDTO;
+import com.vti.rk25finalexam.entity.dto.BulkResultDTO;
+import com.vti.rk25finalexam.entity.dto.CursorPage;
+import com.vti.rk25finalexam.service.AccountImportService;
 import com.vti.rk25finalexam.service.AccountService;
+import com.vti.rk25finalexam.spec.AccountFields;
 import com.vti.rk25finalexam.spec.Expression;
-import java.util.ArrayList;
+import java.io.IOException;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.data.crossstore.ChangeSetPersister.NotFoundException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 //import org.springframework.hateoas.Link;
 //import org.springframework.hateoas.server.mvc.WebMvcLinkBuilder;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
@@ -27,7 +40,11 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 
 @RestController
@@ -35,22 +52,72 @@ import javax.validation.Valid;
 public class AccountController {
 
     private final AccountService accountService;
+    private final AccountImportService accountImportService;
 
-    public AccountController(AccountService accountService) {
+    public AccountController(AccountService accountService,
+                             AccountImportService accountImportService) {
         this.accountService = accountService;
+        this.accountImportService = accountImportService;
     }
 
     @GetMapping()
     public ResponseEntity<Page<AccountDTO>> getAll(
         AccountCriteria criteria,
-        Pageable pageable
+        Pageable pageable,
+        @RequestParam(name = ACCOUNT_FIELDS.PARAM, required = false) String fields
     ) {
-        Page<AccountDTO> accountList = accountService.findAllByCriteria(criteria, pageable);
+        Page<AccountDTO> accountList =
+            accountService.findAllByCriteria(criteria, pageable, parseFields(fields));
         return ResponseEntity
             .ok()
             .body(accountList);
     }
 
+    @GetMapping(params = COUNT_MODE.PARAM + "=" + COUNT_MODE.NONE)
+    public ResponseEntity<Slice<AccountDTO>> getSlice(
+        AccountCriteria criteria,
+        Pageable pageable,
+        @RequestParam(name = ACCOUNT_FIELDS.PARAM, required = false) String fields
+    ) {
+        return ResponseEntity
+            .ok()
+            .body(accountService.findSliceByCriteria(criteria, pageable, parseFields(fields)));
+    }
+
+    @GetMapping(params = COUNT_MODE.PARAM + "=" + COUNT_MODE.PARALLEL)
+    public ResponseEntity<Page<AccountDTO>> getAllParallelCount(
+        AccountCriteria criteria,
+        Pageable pageable,
+        @RequestParam(name = ACCOUNT_FIELDS.PARAM, required = false) String fields
+    ) {
+        return ResponseEntity
+            .ok()
+            .body(accountService.findAllByCriteriaParallelCount(criteria, pageable, parseFields(fields)));
+    }
+
+    // after rỗng = trang đầu
+    @GetMapping(params = "after")
+    public ResponseEntity<CursorPage<AccountDTO>> getAllAfter(
+        AccountCriteria criteria,
+        @RequestParam(required = false) String after,
+        Pageable pageable,
+        @RequestParam(name = ACCOUNT_FIELDS.PARAM, required = false) String fields
+    ) {
+        return ResponseEntity
+            .ok()
+            .body(accountService.findAllByCriteria(criteria, after, pageable, parseFields(fields)));
+    }
+
+    // trang đầu keyset khi client chưa có after
+    @GetMapping(params = {COUNT_MODE.PARAM + "=" + COUNT_MODE.CURSOR, "!after"})
+    public ResponseEntity<CursorPage<AccountDTO>> getFirstCursorPage(
+        AccountCriteria criteria,
+        Pageable pageable,
+        @RequestParam(name = ACCOUNT_FIELDS.PARAM, required = false) String fields
+    ) {
+        return getAllAfter(criteria, null, pageable, fields);
+    }
+
 //    @GetMapping("/{id}")
 //    public ResponseEntity<Optional<AccountDTO>> getOne(@PathVariable Integer id) {
 //        Optional<AccountDTO> accountDTO =
@@ -72,6 +139,32 @@ public class AccountController {
 //            .body(accountDTO);
 //    }
 
+    @GetMapping("/export")
+    public void export(
+        AccountCriteria criteria,
+        @RequestParam(defaultValue = EXPORT_FORMAT.NDJSON) String format,
+        HttpServletResponse response
+    ) throws IOException {
+        // format không hợp lệ: để service ném lỗi, response vẫn là JSON
+        if (EXPORT_FORMAT.CSV.equals(format) || EXPORT_FORMAT.NDJSON.equals(format)) {
+            response.setContentType(EXPORT_FORMAT.CSV.equals(format)
+                ? "text/csv;charset=UTF-8"
+                : "application/x-ndjson;charset=UTF-8");
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"accounts." + format + "\"");
+        }
+        accountService.export(criteria, format, response.getOutputStream());
+    }
+
+    @PostMapping("/import")
+    public void importAccounts(
+        HttpServletRequest request,
+        HttpServletResponse response
+    ) throws IOException {
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        accountImportService.importAccounts(request.getInputStream(), response.getOutputStream());
+    }
+
     @PostMapping
     public ResponseEntity<AccountDTO> create(
             @RequestBody @Validated AccountCreateDTO accountCreateDTO
@@ -91,6 +184,17 @@ public class AccountController {
             .body(accountService.update(id, accountUpdateDTO));
     }
 
+    @PatchMapping("/{id}")
+    public ResponseEntity<Void> patch(
+        @PathVariable Integer id,
+        @RequestBody @Validated AccountUpdateDTO accountUpdateDTO
+    ) {
+        accountService.patch(id, accountUpdateDTO);
+        return ResponseEntity
+            .noContent()
+            .build();
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Account> delete(@PathVariable Integer id)
         throws NotFoundException {
@@ -100,25 +204,86 @@ public class AccountController {
             .body(responseAccount);
     }
 
+    @DeleteMapping
+    public ResponseEntity<BulkResultDTO> deleteAll(
+        AccountCriteria criteria,
+        @RequestParam(required = false) List<Integer> ids
+    ) {
+        return ResponseEntity
+            .ok()
+            .body(accountService.deleteAll(criteria, ids));
+    }
+
+    @PatchMapping
+    public ResponseEntity<BulkResultDTO> updateAll(
+        AccountCriteria criteria,
+        @RequestBody AccountBulkUpdateDTO accountBulkUpdateDTO
+    ) {
+        return ResponseEntity
+            .ok()
+            .body(accountService.updateAll(criteria, accountBulkUpdateDTO));
+    }
+
+    // lookup đi qua AccountDTOCache (DTO luôn đủ field): fields chỉ thu gọn JSON, không đổi câu SQL
     @GetMapping("/username/{username}")
-    public ResponseEntity<Optional<AccountDTO>> getByUsername(@PathVariable String username) {
+    public ResponseEntity<Optional<AccountDTO>> getByUsername(
+        @PathVariable String username,
+        @RequestParam(name = ACCOUNT_FIELDS.PARAM, required = false) String fields
+    ) {
+        parseFields(fields);
         return ResponseEntity
             .ok()
             .body(accountService.findByUsernameEquals(username));
     }
 
+    @GetMapping(value = "/batch", params = "ids")
+    public ResponseEntity<BatchResultDTO<AccountDTO, Integer>> getAllByIds(
+        @RequestParam List<Integer> ids,
+        @RequestParam(name = ACCOUNT_FIELDS.PARAM, required = false) String fields
+    ) {
+        parseFields(fields);
+        return ResponseEntity
+            .ok()
+            .body(accountService.findAllByIds(ids));
+    }
+
+    @GetMapping(value = "/batch", params = "usernames")
+    public ResponseEntity<BatchResultDTO<AccountDTO, String>> getAllByUsernames(
+        @RequestParam List<String> usernames,
+        @RequestParam(name = ACCOUNT_FIELDS.PARAM, required = false) String fields
+    ) {
+        parseFields(fields);
+        return ResponseEntity
+            .ok()
+            .body(accountService.findAllByUsernames(usernames));
+    }
+
+    @GetMapping(value = "/filter", params = "q")
+    public ResponseEntity<List<AccountDTO>> filter(
+        @RequestParam String q,
+        @RequestParam(name = ACCOUNT_FIELDS.PARAM, required = false) String fields
+    ) {
+        return ResponseEntity
+            .ok()
+            .body(accountService.getAll(q, parseFields(fields)));
+    }
+
     @GetMapping("/filter")
-    public ResponseEntity<List<AccountDTO>> filter(Expression expression) {
-
-        try {
-            return ResponseEntity
-                .ok()
-                .body(accountService.getAll(expression));
-        } catch (Exception e) {
-            return ResponseEntity
-                .ok()
-                .body(new ArrayList<>());
-        }
+    public ResponseEntity<List<AccountDTO>> filter(
+        Expression expression,
+        @RequestParam(name = ACCOUNT_FIELDS.PARAM, required = false) String fields
+    ) {
+        return ResponseEntity
+            .ok()
+            .body(accountService.getAll(expression, parseFields(fields)));
+    }
+
+    // parse một lần; AccountFieldsResponseBodyAdvice đọc lại từ request attribute để thu gọn JSON
+    private AccountFields parseFields(String fields) {
+        AccountFields accountFields = AccountFields.parse(fields);
+        RequestContextHolder.currentRequestAttributes()
+            .setAttribute(ACCOUNT_FIELDS.REQUEST_ATTRIBUTE, accountFields, RequestAttributes.SCOPE_REQUEST);
+        return accountFields;
     }
 
 }
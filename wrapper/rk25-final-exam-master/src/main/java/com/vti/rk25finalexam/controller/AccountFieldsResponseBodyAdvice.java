@@ -0,0 +1,43 @@
+package com.vti.rk25finalexam.controller;
+
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.vti.rk25finalexam.common.Constants.ACCOUNT_FIELDS;
+import com.vti.rk25finalexam.spec.AccountFields;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.AbstractMappingJacksonResponseBodyAdvice;
+
+/**
+ * ?fields=id,username: AccountDTO trong response (Page, Slice, CursorPage, batch, lookup)
+ * chỉ còn các field được yêu cầu. Field thêm vào SQL để phục vụ server (id, field sort cursor) cũng bị bỏ.
+ */
+@ControllerAdvice(assignableTypes = AccountController.class)
+public class AccountFieldsResponseBodyAdvice extends AbstractMappingJacksonResponseBodyAdvice {
+
+    @Override
+    protected void beforeBodyWriteInternal(
+        MappingJacksonValue bodyContainer,
+        MediaType contentType,
+        MethodParameter returnType,
+        ServerHttpRequest request,
+        ServerHttpResponse response
+    ) {
+        if (!(request instanceof ServletServerHttpRequest)) {
+            return;
+        }
+        // controller đã parse (và từ chối fields không hợp lệ) rồi lưu vào request attribute
+        AccountFields fields = (AccountFields) ((ServletServerHttpRequest) request).getServletRequest()
+            .getAttribute(ACCOUNT_FIELDS.REQUEST_ATTRIBUTE);
+        if (fields == null || fields.isAll()) {
+            return;
+        }
+        bodyContainer.setFilters(new SimpleFilterProvider()
+            .addFilter(ACCOUNT_FIELDS.FILTER, SimpleBeanPropertyFilter.filterOutAllExcept(fields.getNames())));
+    }
+}
@@ -1,6 +1,7 @@
 package com.vti.rk25finalexam.controller;
 
 import com.vti.rk25finalexam.entity.Department;
+import com.vti.rk25finalexam.entity.dto.BatchResultDTO;
 import com.vti.rk25finalexam.entity.dto.DepartmentDTO;
 import com.vti.rk25finalexam.service.DepartmentService;
 import java.util.List;
@@ -15,6 +16,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
@@ -43,6 +45,13 @@ public class DepartmentController {
             .body(departmentDTO);
     }
 
+    @GetMapping(value = "/batch", params = "ids")
+    public ResponseEntity<BatchResultDTO<DepartmentDTO, Integer>> getAllByIds(@RequestParam List<Integer> ids) {
+        return ResponseEntity
+            .ok()
+            .body(departmentService.findAllByIds(ids));
+    }
+
     @PostMapping
     public ResponseEntity<Department> create(@RequestBody Department Department) {
         Department responseDepartment = departmentService.create(Department);
@@ -1,22 +1,37 @@
 package com.vti.rk25finalexam.entity;
 
+import com.vti.rk25finalexam.entity.listener.AccountSearchIndexListener;
 import javax.persistence.Column;
 import javax.persistence.Entity;
+import javax.persistence.EntityListeners;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
+import javax.persistence.NamedAttributeNode;
+import javax.persistence.NamedEntityGraph;
 import javax.persistence.Table;
 import lombok.Data;
 import org.hibernate.annotations.Where;
 
 @Entity
-@Table(name = "account")
+@Table(name = "account", indexes = {
+    @Index(name = "idx_account_first_name_id", columnList = "first_name, id"),
+    @Index(name = "idx_account_last_name_id", columnList = "last_name, id"),
+    @Index(name = "idx_account_role_id", columnList = "role, id")
+})
 @Data
+@NamedEntityGraph(
+    name = Account.GRAPH_DEPARTMENT,
+    attributeNodes = @NamedAttributeNode("department"))
+@EntityListeners(AccountSearchIndexListener.class)
 @Where(clause = "is_deleted = 0")
 public class Account extends CommonEntity {
 
+    public static final String GRAPH_DEPARTMENT = "Account.department";
+
     @Id
     @Column(name = "id")
     @GeneratedValue(strategy = GenerationType.IDENTITY)
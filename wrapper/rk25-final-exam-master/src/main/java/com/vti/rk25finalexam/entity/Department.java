@@ -1,9 +1,11 @@
 package com.vti.rk25finalexam.entity;
 
+import com.vti.rk25finalexam.entity.listener.DepartmentCacheListener;
 import java.time.LocalDateTime;
 import java.util.List;
 import javax.persistence.Column;
 import javax.persistence.Entity;
+import javax.persistence.EntityListeners;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
@@ -11,11 +13,14 @@ import javax.persistence.OneToMany;
 import javax.persistence.PrePersist;
 import javax.persistence.Table;
 import lombok.Data;
+import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.CreationTimestamp;
 
 @Data
 @Entity
 @Table(name = "department")
+@BatchSize(size = 100)
+@EntityListeners(DepartmentCacheListener.class)
 public class Department {
 
     @Id
@@ -0,0 +1,16 @@
+package com.vti.rk25finalexam.entity.dto;
+
+import java.util.List;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+public class AccountBulkUpdateDTO {
+
+    private List<Integer> ids;
+
+    private String role;
+
+    private Integer departmentId;
+}
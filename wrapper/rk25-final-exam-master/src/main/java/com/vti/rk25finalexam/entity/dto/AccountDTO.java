@@ -1,38 +1,38 @@
 package com.vti.rk25finalexam.entity.dto;
 
-import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonFilter;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.vti.rk25finalexam.common.Constants.ACCOUNT_FIELDS;
+import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
 //import org.springframework.hateoas.RepresentationModel;
 
 //@EqualsAndHashCode(callSuper = true)
+// ?fields=... chỉ serialize các field được yêu cầu (AccountFieldsResponseBodyAdvice), mặc định serialize hết
+@JsonFilter(ACCOUNT_FIELDS.FILTER)
 @Data
+@NoArgsConstructor
+@AllArgsConstructor
 public class AccountDTO {
 
     private Integer id;
 
     private String username;
 
-    private String password;
-
     private String firstName;
 
     private String lastName;
 
     private String role;
 
-    @JsonProperty("deptId")
+    @JsonProperty(ACCOUNT_FIELDS.DEPT_ID)
     private Integer departmentId;
 
-    @JsonProperty("deptName")
+    @JsonProperty(ACCOUNT_FIELDS.DEPT_NAME)
     private String departmentName;
 
-    @JsonIgnore
-    public String getPassword() {
-        return password;
-    }
-
     public AccountDTO id(Integer id) {
         this.id = id;
         return this;
@@ -43,11 +43,6 @@ public class AccountDTO {
         return this;
     }
 
-    public AccountDTO password(String password) {
-        this.password = password;
-        return this;
-    }
-
     public AccountDTO firstName(String firstName) {
         this.firstName = firstName;
         return this;
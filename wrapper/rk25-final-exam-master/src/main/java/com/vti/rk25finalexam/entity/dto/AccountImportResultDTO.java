@@ -0,0 +1,46 @@
+package com.vti.rk25finalexam.entity.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class AccountImportResultDTO {
+
+    private Integer index;
+
+    private String username;
+
+    private String status;
+
+    private Integer id;
+
+    private String errorCode;
+
+    public AccountImportResultDTO index(Integer index) {
+        this.index = index;
+        return this;
+    }
+
+    public AccountImportResultDTO username(String username) {
+        this.username = username;
+        return this;
+    }
+
+    public AccountImportResultDTO status(String status) {
+        this.status = status;
+        return this;
+    }
+
+    public AccountImportResultDTO id(Integer id) {
+        this.id = id;
+        return this;
+    }
+
+    public AccountImportResultDTO errorCode(String errorCode) {
+        this.errorCode = errorCode;
+        return this;
+    }
+}
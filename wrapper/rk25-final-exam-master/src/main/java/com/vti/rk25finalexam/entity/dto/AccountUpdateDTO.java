@@ -3,14 +3,21 @@ package com.vti.rk25finalexam.entity.dto;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.validator.constraints.Length;
+import javax.validation.constraints.Pattern;
 
 @Data
 @NoArgsConstructor
 public class AccountUpdateDTO {
+    // PATCH: null = không cập nhật, nên chỉ kiểm tra khi có giá trị
+    @Pattern(regexp = ".*\\S.*", message = "Username is not blank")
+    @Length(max = 50, message = "Length of username is not over 50 chars")
     private String username;
 
+    @Length(max = 50, message = "Length of first name is not over 50 chars")
     private String firstName;
 
+    @Length(max = 50, message = "Length of last name is not over 50 chars")
     private String lastName;
 
     private String role;
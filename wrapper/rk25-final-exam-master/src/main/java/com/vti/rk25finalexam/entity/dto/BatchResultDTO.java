@@ -0,0 +1,28 @@
+package com.vti.rk25finalexam.entity.dto;
+
+import java.util.List;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Kết quả lookup nhiều key một lần: content theo đúng thứ tự key gửi lên (key trùng chỉ trả một lần),
+ * missing là các key không tìm thấy (không tồn tại hoặc đã xóa mềm), cũng theo thứ tự gửi lên.
+ */
+@Data
+@NoArgsConstructor
+public class BatchResultDTO<T, K> {
+
+    private List<T> content;
+
+    private List<K> missing;
+
+    public BatchResultDTO<T, K> content(List<T> content) {
+        this.content = content;
+        return this;
+    }
+
+    public BatchResultDTO<T, K> missing(List<K> missing) {
+        this.missing = missing;
+        return this;
+    }
+}
@@ -0,0 +1,13 @@
+package com.vti.rk25finalexam.entity.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkResultDTO {
+
+    private Integer affected;
+}
@@ -0,0 +1,38 @@
+package com.vti.rk25finalexam.entity.dto;
+
+import java.util.List;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+public class CursorPage<T> {
+
+    private List<T> content;
+
+    private Integer size;
+
+    private Boolean hasNext;
+
+    private String next;
+
+    public CursorPage<T> content(List<T> content) {
+        this.content = content;
+        return this;
+    }
+
+    public CursorPage<T> size(Integer size) {
+        this.size = size;
+        return this;
+    }
+
+    public CursorPage<T> hasNext(Boolean hasNext) {
+        this.hasNext = hasNext;
+        return this;
+    }
+
+    public CursorPage<T> next(String next) {
+        this.next = next;
+        return this;
+    }
+}
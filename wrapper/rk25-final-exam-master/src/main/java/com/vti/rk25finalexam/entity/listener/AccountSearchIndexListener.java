@@ -0,0 +1,47 @@
+package com.vti.rk25finalexam.entity.listener;
+
+import com.vti.rk25finalexam.entity.Account;
+import com.vti.rk25finalexam.service.AccountSearchIndex;
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@Component
+public class AccountSearchIndexListener {
+
+    // listener được Hibernate khởi tạo cùng EntityManagerFactory, lấy index lazy để tránh vòng phụ thuộc
+    private final ObjectProvider<AccountSearchIndex> accountSearchIndex;
+
+    public AccountSearchIndexListener(ObjectProvider<AccountSearchIndex> accountSearchIndex) {
+        this.accountSearchIndex = accountSearchIndex;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void afterSave(Account account) {
+        afterCommit(() -> accountSearchIndex.ifAvailable(index -> index.put(account)));
+    }
+
+    @PostRemove
+    public void afterRemove(Account account) {
+        afterCommit(() -> accountSearchIndex.ifAvailable(index -> index.remove(account.getId())));
+    }
+
+    // chỉ cập nhật index khi transaction commit thành công
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,61 @@
+package com.vti.rk25finalexam.entity.listener;
+
+import com.vti.rk25finalexam.entity.Department;
+import com.vti.rk25finalexam.service.AccountDTOCache;
+import com.vti.rk25finalexam.service.DepartmentCache;
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@Component
+public class DepartmentCacheListener {
+
+    // listener được Hibernate khởi tạo cùng EntityManagerFactory, lấy cache lazy để tránh vòng phụ thuộc
+    private final ObjectProvider<DepartmentCache> departmentCache;
+
+    private final ObjectProvider<AccountDTOCache> accountDTOCache;
+
+    public DepartmentCacheListener(
+            ObjectProvider<DepartmentCache> departmentCache,
+            ObjectProvider<AccountDTOCache> accountDTOCache) {
+        this.departmentCache = departmentCache;
+        this.accountDTOCache = accountDTOCache;
+    }
+
+    @PostPersist
+    public void afterPersist(Department department) {
+        afterWrite(this::invalidate);
+    }
+
+    // department mới chưa có account nào trong cache, chỉ update / remove mới phải evict AccountDTO
+    @PostUpdate
+    @PostRemove
+    public void afterUpdate(Department department) {
+        Integer id = department.getId();
+        afterWrite(() -> {
+            invalidate();
+            accountDTOCache.ifAvailable(cache -> cache.evictDepartment(id));
+        });
+    }
+
+    private void afterWrite(Runnable invalidate) {
+        invalidate.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // cả khi rollback: snapshot có thể đã nạp dữ liệu chưa commit của chính transaction này
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    invalidate.run();
+                }
+            });
+        }
+    }
+
+    private void invalidate() {
+        departmentCache.ifAvailable(DepartmentCache::invalidate);
+    }
+}
@@ -0,0 +1,16 @@
+package com.vti.rk25finalexam.event;
+
+import java.util.Collection;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Phát ra khi account thay đổi bằng câu lệnh set-based (không qua entity listener),
+ * để các index / cache liên quan cập nhật lại các id bị ảnh hưởng sau khi commit.
+ */
+@Data
+@AllArgsConstructor
+public class AccountChangedEvent {
+
+    private Collection<Integer> ids;
+}
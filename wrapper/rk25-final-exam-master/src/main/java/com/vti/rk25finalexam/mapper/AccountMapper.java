@@ -0,0 +1,53 @@
+package com.vti.rk25finalexam.mapper;
+
+import com.vti.rk25finalexam.entity.Account;
+import com.vti.rk25finalexam.entity.Department;
+import com.vti.rk25finalexam.entity.dto.AccountCreateDTO;
+import com.vti.rk25finalexam.entity.dto.AccountDTO;
+import com.vti.rk25finalexam.entity.dto.AccountUpdateDTO;
+import org.springframework.stereotype.Component;
+
+/**
+ * Mapper viết tay thay cho ModelMapper: không reflection, chỉ cấp phát đối tượng đích.
+ * Department không được map từ departmentId, caller tự gán department đã kiểm tra.
+ */
+@Component
+public class AccountMapper {
+
+    public AccountDTO toDTO(Account account) {
+        if (account == null) {
+            return null;
+        }
+        Department department = account.getDepartment();
+        return new AccountDTO(
+                account.getId(),
+                account.getUsername(),
+                account.getFirstName(),
+                account.getLastName(),
+                account.getRole(),
+                department == null ? null : department.getId(),
+                department == null ? null : department.getName());
+    }
+
+    public Account toEntity(AccountCreateDTO accountCreateDTO) {
+        if (accountCreateDTO == null) {
+            return null;
+        }
+        return new Account()
+                .username(accountCreateDTO.getUsername())
+                .firstName(accountCreateDTO.getFirstName())
+                .lastName(accountCreateDTO.getLastName())
+                .role(accountCreateDTO.getRole());
+    }
+
+    public Account toEntity(AccountUpdateDTO accountUpdateDTO) {
+        if (accountUpdateDTO == null) {
+            return null;
+        }
+        return new Account()
+                .username(accountUpdateDTO.getUsername())
+                .firstName(accountUpdateDTO.getFirstName())
+                .lastName(accountUpdateDTO.getLastName())
+                .role(accountUpdateDTO.getRole());
+    }
+}
@@ -0,0 +1,18 @@
+package com.vti.rk25finalexam.mapper;
+
+import com.vti.rk25finalexam.entity.Department;
+import com.vti.rk25finalexam.entity.dto.DepartmentDTO;
+import org.springframework.stereotype.Component;
+
+@Component
+public class DepartmentMapper {
+
+    public DepartmentDTO toDTO(Department department) {
+        if (department == null) {
+            return null;
+        }
+        return new DepartmentDTO()
+                .id(department.getId() == null ? null : String.valueOf(department.getId()))
+                .name(department.getName());
+    }
+}
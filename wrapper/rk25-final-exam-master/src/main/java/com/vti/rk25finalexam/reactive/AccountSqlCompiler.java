@@ -0,0 +1,205 @@
+package com.vti.rk25finalexam.reactive;
+
+import static com.vti.rk25finalexam.service.AccountCriteriaCompiler.operator;
+import static com.vti.rk25finalexam.service.AccountCriteriaCompiler.searchById;
+import static com.vti.rk25finalexam.utils.Utils.LIKE_ESCAPE;
+import static com.vti.rk25finalexam.utils.Utils.containsPattern;
+
+import com.vti.rk25finalexam.common.Constants.ACCOUNT;
+import com.vti.rk25finalexam.common.Constants.OPERATOR;
+import com.vti.rk25finalexam.entity.criteria.AccountCriteria;
+import com.vti.rk25finalexam.spec.filter.IntegerFilter;
+import com.vti.rk25finalexam.spec.filter.StringFilter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.springframework.data.domain.Sort;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.DatabaseClient.GenericExecuteSpec;
+
+/**
+ * Biên dịch AccountCriteria thành SQL có tham số cho DatabaseClient, cùng ngữ nghĩa với
+ * AccountCriteriaCompiler (bản JPA): cùng thứ tự ưu tiên operator, contains = like '%x%' (escape % _),
+ * search = OR trên username/firstName/lastName/role (+ id nếu toàn chữ số), bỏ account is_deleted.
+ * sort giống Pageable (chỉ các field trong {@link #SORT_COLUMNS}), luôn thêm a.id cuối cùng cho thứ tự ổn định.
+ * Mỗi shape chỉ sinh SQL một lần, mỗi request chỉ còn bind giá trị.
+ */
+public class AccountSqlCompiler {
+
+    static final String SELECT = "select a.id, a.username, a.first_name, a.last_name, a.role,"
+        + " d.id as department_id, d.name as department_name"
+        + " from account a left join department d on d.id = a.department_id"
+        + " where a.is_deleted = 0";
+
+    // field sort được phép -> cột; cột được ghép thẳng vào SQL nên chỉ lấy từ đây
+    static final Map<String, String> SORT_COLUMNS = Map.of(
+        ACCOUNT.ID, "a.id",
+        ACCOUNT.USERNAME, "a.username",
+        ACCOUNT.FIRST_NAME, "a.first_name",
+        ACCOUNT.LAST_NAME, "a.last_name",
+        ACCOUNT.ROLE, "a.role");
+
+    private static final String ESCAPE = " escape '" + LIKE_ESCAPE + "'";
+
+    private final Map<String, Plan> plans = new ConcurrentHashMap<>();
+
+    public static boolean isSortable(Sort sort) {
+        return sort.stream().allMatch(order -> SORT_COLUMNS.containsKey(order.getProperty()));
+    }
+
+    /**
+     * @param sort  chỉ gồm field {@link #isSortable sortable}
+     * @param limit null -> không giới hạn (stream toàn bộ kết quả)
+     */
+    public GenericExecuteSpec compile(
+        DatabaseClient client,
+        AccountCriteria criteria,
+        Sort sort,
+        Integer limit,
+        long offset
+    ) {
+        String orderBy = orderBy(sort);
+        String shape = shape(criteria, limit != null) + "|" + orderBy;
+        Plan plan = plans.computeIfAbsent(shape, key -> plan(criteria, orderBy, limit != null));
+        GenericExecuteSpec spec = client.sql(plan.sql);
+        for (int i = 0; i < plan.binders.size(); i++) {
+            spec = spec.bind("p" + i, plan.binders.get(i).apply(criteria));
+        }
+        if (limit != null) {
+            spec = spec.bind("limit", limit).bind("offset", offset);
+        }
+        return spec;
+    }
+
+    private String shape(AccountCriteria criteria, boolean paged) {
+        return operator(criteria.getId()) + "|"
+            + operator(criteria.getUsername()) + "|"
+            + operator(criteria.getFirstName()) + "|"
+            + operator(criteria.getLastName()) + "|"
+            + operator(criteria.getRole()) + "|"
+            + operator(criteria.getSearch()) + (searchById(criteria.getSearch()) ? "#id" : "") + "|"
+            + paged;
+    }
+
+    private String orderBy(Sort sort) {
+        List<String> columns = new ArrayList<>();
+        boolean byId = false;
+        for (Sort.Order order : sort) {
+            String column = SORT_COLUMNS.get(order.getProperty());
+            if (column == null) {
+                throw new IllegalArgumentException("Not sortable: " + order.getProperty());
+            }
+            columns.add(column + (order.isAscending() ? " asc" : " desc"));
+            byId |= ACCOUNT.ID.equals(order.getProperty());
+        }
+        if (!byId) {
+            columns.add("a.id asc");
+        }
+        return columns.stream().collect(Collectors.joining(", ", " order by ", ""));
+    }
+
+    private Plan plan(AccountCriteria criteria, String orderBy, boolean paged) {
+        StringBuilder sql = new StringBuilder(SELECT);
+        List<Function<AccountCriteria, Object>> binders = new ArrayList<>();
+        and(sql, integerCondition(binders, "a.id", operator(criteria.getId()), AccountCriteria::getId));
+        and(sql, stringCondition(binders, "a.username", operator(criteria.getUsername()), AccountCriteria::getUsername));
+        and(sql, stringCondition(binders, "a.first_name", operator(criteria.getFirstName()), AccountCriteria::getFirstName));
+        and(sql, stringCondition(binders, "a.last_name", operator(criteria.getLastName()), AccountCriteria::getLastName));
+        and(sql, stringCondition(binders, "a.role", operator(criteria.getRole()), AccountCriteria::getRole));
+
+        String searchOperator = operator(criteria.getSearch());
+        if (searchOperator != null) {
+            // mỗi cột một tham số: bind marker của MySQL (?) không dùng lại được theo tên
+            List<String> or = new ArrayList<>();
+            for (String column : new String[] {"a.username", "a.first_name", "a.last_name", "a.role"}) {
+                or.add(stringCondition(binders, column, searchOperator, AccountCriteria::getSearch));
+            }
+            if (searchById(criteria.getSearch())) {
+                or.add(parameter(binders, "a.id =", c -> Integer.valueOf(c.getSearch().getContains())));
+            }
+            and(sql, "(" + String.join(" or ", or) + ")");
+        }
+
+        // thứ tự ổn định cho stream và phân trang
+        sql.append(orderBy);
+        if (paged) {
+            sql.append(" limit :limit offset :offset");
+        }
+        return new Plan(sql.toString(), binders);
+    }
+
+    private String integerCondition(
+        List<Function<AccountCriteria, Object>> binders,
+        String column,
+        String operator,
+        Function<AccountCriteria, IntegerFilter> filter
+    ) {
+        if (operator == null) {
+            return null;
+        }
+        switch (operator) {
+            case OPERATOR.EQUALS:
+                return parameter(binders, column + " =", c -> filter.apply(c).getEquals());
+            case OPERATOR.NOT_EQUALS:
+                return parameter(binders, column + " <>", c -> filter.apply(c).getNotEquals());
+            case OPERATOR.GREATER_THAN:
+                return parameter(binders, column + " >", c -> filter.apply(c).getGreaterThan());
+            case OPERATOR.LESS_THAN:
+                return parameter(binders, column + " <", c -> filter.apply(c).getLessThan());
+            case OPERATOR.GREATER_THAN_OR_EQUALS:
+                return parameter(binders, column + " >=", c -> filter.apply(c).getGreaterThanOrEquals());
+            default:
+                return parameter(binders, column + " <=", c -> filter.apply(c).getLessThanOrEquals());
+        }
+    }
+
+    private String stringCondition(
+        List<Function<AccountCriteria, Object>> binders,
+        String column,
+        String operator,
+        Function<AccountCriteria, StringFilter> filter
+    ) {
+        if (operator == null) {
+            return null;
+        }
+        switch (operator) {
+            case OPERATOR.EQUALS:
+                return parameter(binders, column + " =", c -> filter.apply(c).getEquals());
+            case OPERATOR.NOT_EQUALS:
+                return parameter(binders, column + " <>", c -> filter.apply(c).getNotEquals());
+            case OPERATOR.CONTAINS:
+                return parameter(binders, column + " like", c -> containsPattern(filter.apply(c).getContains())) + ESCAPE;
+            default:
+                return parameter(binders, column + " not like", c -> containsPattern(filter.apply(c).getNotContains())) + ESCAPE;
+        }
+    }
+
+    // "a.role =" -> "a.role = :p3", binder thứ 3 lấy giá trị từ criteria lúc bind
+    private String parameter(
+        List<Function<AccountCriteria, Object>> binders,
+        String expression,
+        Function<AccountCriteria, Object> binder
+    ) {
+        binders.add(binder);
+        return expression + " :p" + (binders.size() - 1);
+    }
+
+    private void and(StringBuilder sql, String condition) {
+        if (condition != null) {
+            sql.append(" and ").append(condition);
+        }
+    }
+
+    private static class Plan {
+        private final String sql;
+        private final List<Function<AccountCriteria, Object>> binders;
+
+        private Plan(String sql, List<Function<AccountCriteria, Object>> binders) {
+            this.sql = sql;
+            this.binders = binders;
+        }
+    }
+}
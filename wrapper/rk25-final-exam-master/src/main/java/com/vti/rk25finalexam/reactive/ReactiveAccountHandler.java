@@ -0,0 +1,96 @@
+package com.vti.rk25finalexam.reactive;
+
+import static org.springframework.web.reactive.function.server.RequestPredicates.GET;
+import static org.springframework.web.reactive.function.server.RouterFunctions.route;
+
+import com.vti.rk25finalexam.entity.criteria.AccountCriteria;
+import com.vti.rk25finalexam.entity.dto.AccountDTO;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.support.WebExchangeDataBinder;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+/**
+ * API đọc account dạng reactive, cùng đường dẫn và tham số với AccountController:
+ * <pre>
+ *   GET /api/v1/accounts?username.contains=..&amp;id.greaterThan=..&amp;search.contains=..   (AccountCriteria)
+ *       [&amp;size=20&amp;page=0]    không có size -> stream toàn bộ kết quả
+ *       [&amp;sort=firstName,desc]  như Pageable, mặc định theo id
+ *   GET /api/v1/accounts/username/{username}     không có -> 404
+ * </pre>
+ * Danh sách trả về application/x-ndjson, mỗi dòng một account, ghi theo backpressure của client.
+ */
+public class ReactiveAccountHandler {
+
+    private final ReactiveAccountRepository repository;
+
+    public ReactiveAccountHandler(ReactiveAccountRepository repository) {
+        this.repository = repository;
+    }
+
+    public RouterFunction<ServerResponse> routes() {
+        return route(GET("/api/v1/accounts"), this::getAll)
+            .andRoute(GET("/api/v1/accounts/username/{username}"), this::getByUsername);
+    }
+
+    private Mono<ServerResponse> getAll(ServerRequest request) {
+        AccountCriteria criteria = new AccountCriteria();
+        // bind giống @ModelAttribute của Spring MVC: username.contains=... -> criteria.username.contains
+        WebExchangeDataBinder binder = new WebExchangeDataBinder(criteria);
+        return binder.bind(request.exchange()).then(Mono.defer(() -> {
+            Integer size;
+            int page;
+            try {
+                size = request.queryParam("size").map(Integer::valueOf).orElse(null);
+                page = request.queryParam("page").map(Integer::valueOf).orElse(0);
+            } catch (NumberFormatException e) {
+                return ServerResponse.badRequest().build();
+            }
+            Optional<Sort> sort = sort(request.queryParams().getOrDefault("sort", List.of()));
+            if (binder.getBindingResult().hasErrors() || (size != null && size < 1) || page < 0
+                || sort.isEmpty()) {
+                return ServerResponse.badRequest().build();
+            }
+            long offset = size == null ? 0 : (long) page * size;
+            return ServerResponse.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(repository.findAllByCriteria(criteria, sort.get(), size, offset), AccountDTO.class);
+        }));
+    }
+
+    private Mono<ServerResponse> getByUsername(ServerRequest request) {
+        // giống API servlet (ResponseEntity<Optional<AccountDTO>>): không có -> 200, body null
+        return repository.findByUsername(request.pathVariable("username"))
+            .map(Optional::of)
+            .defaultIfEmpty(Optional.empty())
+            .flatMap(account -> ServerResponse.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(account));
+    }
+
+    // cú pháp của Pageable: sort=field1,field2[,asc|desc], lặp lại được; field không sort được -> empty
+    private Optional<Sort> sort(List<String> params) {
+        List<Sort.Order> orders = new ArrayList<>();
+        for (String param : params) {
+            List<String> parts = new ArrayList<>(Arrays.asList(param.split(",")));
+            Optional<Sort.Direction> direction = Sort.Direction.fromOptionalString(parts.get(parts.size() - 1));
+            if (direction.isPresent()) {
+                parts.remove(parts.size() - 1);
+            }
+            for (String property : parts) {
+                if (!property.isBlank()) {
+                    orders.add(new Sort.Order(direction.orElse(Sort.Direction.ASC), property.trim()));
+                }
+            }
+        }
+        Sort sort = Sort.by(orders);
+        return AccountSqlCompiler.isSortable(sort) ? Optional.of(sort) : Optional.empty();
+    }
+}
@@ -0,0 +1,64 @@
+package com.vti.rk25finalexam.reactive;
+
+import com.vti.rk25finalexam.entity.criteria.AccountCriteria;
+import com.vti.rk25finalexam.entity.dto.AccountDTO;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.spi.Row;
+import java.io.Closeable;
+import org.springframework.data.domain.Sort;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Đọc account qua R2DBC, trả về cùng AccountDTO với AccountRepository.SELECT_DTO.
+ * Flux lấy dòng theo demand của subscriber: client đọc chậm thì driver ngừng đọc tiếp.
+ */
+public class ReactiveAccountRepository implements Closeable {
+
+    private static final String SELECT_BY_USERNAME = AccountSqlCompiler.SELECT + " and a.username = :username";
+
+    private final ConnectionPool pool;
+
+    private final DatabaseClient databaseClient;
+
+    private final AccountSqlCompiler compiler;
+
+    public ReactiveAccountRepository(ConnectionPool pool, AccountSqlCompiler compiler) {
+        this.pool = pool;
+        this.databaseClient = DatabaseClient.create(pool);
+        this.compiler = compiler;
+    }
+
+    /**
+     * @param limit null -> stream toàn bộ kết quả
+     */
+    public Flux<AccountDTO> findAllByCriteria(AccountCriteria criteria, Sort sort, Integer limit, long offset) {
+        return compiler.compile(databaseClient, criteria, sort, limit, offset)
+            .map(ReactiveAccountRepository::toDTO)
+            .all();
+    }
+
+    public Mono<AccountDTO> findByUsername(String username) {
+        return databaseClient.sql(SELECT_BY_USERNAME)
+            .bind("username", username)
+            .map(ReactiveAccountRepository::toDTO)
+            .one();
+    }
+
+    @Override
+    public void close() {
+        pool.dispose();
+    }
+
+    private static AccountDTO toDTO(Row row) {
+        return new AccountDTO(
+            row.get("id", Integer.class),
+            row.get("username", String.class),
+            row.get("first_name", String.class),
+            row.get("last_name", String.class),
+            row.get("role", String.class),
+            row.get("department_id", Integer.class),
+            row.get("department_name", String.class));
+    }
+}
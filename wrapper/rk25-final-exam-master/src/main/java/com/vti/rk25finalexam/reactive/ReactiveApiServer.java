@@ -0,0 +1,54 @@
+package com.vti.rk25finalexam.reactive;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.http.server.reactive.HttpHandler;
+import org.springframework.http.server.reactive.ReactorHttpHandlerAdapter;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+/**
+ * Reactor Netty chạy cạnh Tomcat, port riêng (app.reactive.port, 0 = port ngẫu nhiên).
+ * App vẫn là ứng dụng servlet nên WebFlux không tự khởi động server.
+ */
+@Slf4j
+public class ReactiveApiServer implements SmartLifecycle {
+
+    private final HttpHandler httpHandler;
+
+    private final int port;
+
+    private volatile DisposableServer server;
+
+    public ReactiveApiServer(HttpHandler httpHandler, int port) {
+        this.httpHandler = httpHandler;
+        this.port = port;
+    }
+
+    @Override
+    public void start() {
+        server = HttpServer.create()
+            .port(port)
+            .handle(new ReactorHttpHandlerAdapter(httpHandler))
+            .bindNow();
+        log.info("Reactive API started on port {}", server.port());
+    }
+
+    @Override
+    public void stop() {
+        DisposableServer current = server;
+        if (current != null) {
+            current.disposeNow();
+            server = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return server != null;
+    }
+
+    public int getPort() {
+        return server.port();
+    }
+}
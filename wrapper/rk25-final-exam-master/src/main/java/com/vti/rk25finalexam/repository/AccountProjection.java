@@ -0,0 +1,17 @@
+package com.vti.rk25finalexam.repository;
+
+import java.util.Set;
+
+/**
+ * Các field của AccountDTO mà câu SELECT cần lấy (tên field trong JSON).
+ * isAll = câu SELECT_DTO đầy đủ.
+ */
+public interface AccountProjection {
+
+    boolean isAll();
+
+    Set<String> getNames();
+
+    // thêm field cần cho xử lý phía server (vd: id, field sort của cursor), không đổi field trả về JSON
+    AccountProjection with(String... fields);
+}
@@ -1,12 +1,15 @@
 package com.vti.rk25finalexam.repository;
 
 import com.vti.rk25finalexam.entity.Account;
+import com.vti.rk25finalexam.entity.dto.AccountDTO;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
@@ -15,14 +18,53 @@ import org.springframework.stereotype.Repository;
 @Repository
 public interface AccountRepository extends
     JpaRepository<Account, Integer>,
-    JpaSpecificationExecutor<Account> {
-
-    List<Account> findAllByUsernameContains(String username);
+    JpaSpecificationExecutor<Account>,
+    AccountRepositoryCustom {
 
     Optional<Account> findByUsername(String username);
 
+    @Override
+    @EntityGraph(Account.GRAPH_DEPARTMENT)
+    List<Account> findAll();
+
+    @Override
+    @EntityGraph(Account.GRAPH_DEPARTMENT)
     Page<Account> findAll(Specification<Account> spec, Pageable pageable);
 
-    @Query("select a from Account a where a.firstName = ?1 and a.lastName = ?2")
-    List<Account> timTheoFirstnameLastname(String firstname, String lastname);
+    @Override
+    @EntityGraph(Account.GRAPH_DEPARTMENT)
+    List<Account> findAll(Specification<Account> spec);
+
+    @Query("select a.id, a.username, a.firstName, a.lastName, a.role from Account a "
+        + "where a.id > ?1 order by a.id")
+    List<Object[]> findSearchColumnsAfter(Integer id, Pageable pageable);
+
+    @Query("select a.id, a.username, a.firstName, a.lastName, a.role from Account a "
+        + "where a.id in ?1")
+    List<Object[]> findSearchColumnsByIdIn(Collection<Integer> ids);
+
+    String SELECT_DTO = "select new com.vti.rk25finalexam.entity.dto.AccountDTO("
+        + "a.id, a.username, a.firstName, a.lastName, a.role, d.id, d.name) "
+        + "from Account a left join a.department d ";
+
+    @Query(value = SELECT_DTO, countQuery = "select count(a) from Account a")
+    Page<AccountDTO> findAllDTO(Pageable pageable);
+
+    @Query(SELECT_DTO + "where a.id = ?1")
+    Optional<AccountDTO> findDTOById(Integer id);
+
+    @Query(SELECT_DTO + "where a.username = ?1")
+    Optional<AccountDTO> findDTOByUsername(String username);
+
+    @Query(SELECT_DTO + "where a.id in ?1")
+    List<AccountDTO> findAllDTOByIdIn(Collection<Integer> ids);
+
+    @Query(SELECT_DTO + "where a.username in ?1")
+    List<AccountDTO> findAllDTOByUsernameIn(Collection<String> usernames);
+
+    @Query(SELECT_DTO + "where a.username like %?1%")
+    List<AccountDTO> findAllDTOByUsernameContains(String username);
+
+    @Query(SELECT_DTO + "where a.firstName = ?1 and a.lastName = ?2")
+    List<AccountDTO> timTheoFirstnameLastnameDTO(String firstname, String lastname);
 }
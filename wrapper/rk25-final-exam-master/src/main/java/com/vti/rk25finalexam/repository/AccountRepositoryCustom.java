@@ -0,0 +1,36 @@
+package com.vti.rk25finalexam.repository;
+
+import com.vti.rk25finalexam.entity.Account;
+import com.vti.rk25finalexam.entity.dto.AccountDTO;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.stream.Stream;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+public interface AccountRepositoryCustom {
+
+    List<AccountDTO> findAllDTO(Specification<Account> spec);
+
+    List<AccountDTO> findAllDTO(Specification<Account> spec, AccountProjection fields);
+
+    List<AccountDTO> findAllDTO(Specification<Account> spec, Sort sort, long offset, int limit);
+
+    List<AccountDTO> findAllDTO(Specification<Account> spec, Sort sort, long offset, int limit, AccountProjection fields);
+
+    Page<AccountDTO> findAllDTO(Specification<Account> spec, Pageable pageable);
+
+    Page<AccountDTO> findAllDTO(Specification<Account> spec, Pageable pageable, AccountProjection fields);
+
+    Stream<AccountDTO> streamAllDTO(Specification<Account> spec, int fetchSize);
+
+    CompletableFuture<Long> countAsync(Specification<Account> spec, Executor executor);
+
+    List<Integer> updateAll(Specification<Account> spec, Map<String, Object> values);
+
+    int updateById(Integer id, Map<String, Object> values, Integer departmentId);
+}
@@ -0,0 +1,366 @@
+package com.vti.rk25finalexam.repository;
+
+import com.vti.rk25finalexam.common.Constants.ACCOUNT;
+import com.vti.rk25finalexam.common.Constants.ACCOUNT_FIELDS;
+import com.vti.rk25finalexam.common.Constants.IS_DELETED;
+import com.vti.rk25finalexam.entity.Account;
+import com.vti.rk25finalexam.entity.Account_;
+import com.vti.rk25finalexam.entity.Department;
+import com.vti.rk25finalexam.entity.Department_;
+import com.vti.rk25finalexam.entity.dto.AccountDTO;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+import javax.persistence.EntityManager;
+import javax.persistence.LockModeType;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Tuple;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.CriteriaUpdate;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Selection;
+import javax.persistence.criteria.Subquery;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.HibernateException;
+import org.hibernate.Session;
+import org.hibernate.jpa.QueryHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+@Slf4j
+public class AccountRepositoryCustomImpl implements AccountRepositoryCustom {
+
+    // số id tối đa trong một câu UPDATE ... WHERE id IN (...)
+    private static final int UPDATE_BATCH_SIZE = 1000;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<AccountDTO> findAllDTO(Specification<Account> spec) {
+        return createDTOQuery(spec, Sort.unsorted()).getResultList();
+    }
+
+    @Override
+    public List<AccountDTO> findAllDTO(Specification<Account> spec, AccountProjection fields) {
+        if (fields.isAll()) {
+            return findAllDTO(spec);
+        }
+        return toDTOs(createTupleQuery(spec, Sort.unsorted(), fields).getResultList(), fields);
+    }
+
+    @Override
+    public List<AccountDTO> findAllDTO(Specification<Account> spec, Sort sort, long offset, int limit) {
+        return createDTOQuery(spec, sort)
+            .setFirstResult((int) offset)
+            .setMaxResults(limit)
+            .getResultList();
+    }
+
+    @Override
+    public List<AccountDTO> findAllDTO(
+        Specification<Account> spec,
+        Sort sort,
+        long offset,
+        int limit,
+        AccountProjection fields
+    ) {
+        if (fields.isAll()) {
+            return findAllDTO(spec, sort, offset, limit);
+        }
+        List<Tuple> rows = createTupleQuery(spec, sort, fields)
+            .setFirstResult((int) offset)
+            .setMaxResults(limit)
+            .getResultList();
+        return toDTOs(rows, fields);
+    }
+
+    @Override
+    public Page<AccountDTO> findAllDTO(Specification<Account> spec, Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            List<AccountDTO> content = findAllDTO(spec);
+            return PageableExecutionUtils.getPage(content, pageable, content::size);
+        }
+        List<AccountDTO> content = findAllDTO(spec, pageable.getSort(), pageable.getOffset(), pageable.getPageSize());
+        return PageableExecutionUtils.getPage(content, pageable, () -> countQuery(entityManager, spec).getSingleResult());
+    }
+
+    @Override
+    public Page<AccountDTO> findAllDTO(Specification<Account> spec, Pageable pageable, AccountProjection fields) {
+        if (fields.isAll()) {
+            return findAllDTO(spec, pageable);
+        }
+        if (pageable.isUnpaged()) {
+            List<AccountDTO> content = findAllDTO(spec, fields);
+            return PageableExecutionUtils.getPage(content, pageable, content::size);
+        }
+        List<AccountDTO> content = findAllDTO(
+            spec, pageable.getSort(), pageable.getOffset(), pageable.getPageSize(), fields);
+        return PageableExecutionUtils.getPage(content, pageable, () -> countQuery(entityManager, spec).getSingleResult());
+    }
+
+    // DTO không phải entity nên persistence context không lớn dần theo số dòng;
+    // phải được đọc hết trong transaction đang mở connection
+    // fetchSize = Integer.MIN_VALUE: MySQL stream từng dòng, connection bận tới khi đóng stream
+    @Override
+    public Stream<AccountDTO> streamAllDTO(Specification<Account> spec, int fetchSize) {
+        return createDTOQuery(spec, Sort.by(ACCOUNT.ID))
+            .setHint(QueryHints.HINT_FETCH_SIZE, fetchSize)
+            .setHint(QueryHints.HINT_READONLY, true)
+            .getResultStream();
+    }
+
+    // COUNT(*) trên EntityManager (connection) riêng, ngoài transaction của caller.
+    // cancel() gọi Statement.cancel() của câu đang chạy: interrupt thread không dừng được JDBC
+    @Override
+    public CompletableFuture<Long> countAsync(Specification<Account> spec, Executor executor) {
+        AtomicReference<Session> running = new AtomicReference<>();
+        CompletableFuture<Long> count = new CompletableFuture<Long>() {
+            @Override
+            public boolean cancel(boolean mayInterruptIfRunning) {
+                boolean cancelled = super.cancel(mayInterruptIfRunning);
+                if (cancelled) {
+                    // khóa cùng lúc đóng EntityManager: không cancel trên session đã đóng
+                    synchronized (running) {
+                        Session session = running.get();
+                        if (session != null) {
+                            try {
+                                session.cancelQuery();
+                            } catch (HibernateException e) {
+                                // câu COUNT có thể vừa chạy xong
+                                log.debug("Could not cancel count query", e);
+                            }
+                        }
+                    }
+                }
+                return cancelled;
+            }
+        };
+        executor.execute(() -> {
+            if (count.isDone()) {
+                return;
+            }
+            EntityManager countEntityManager = entityManager.getEntityManagerFactory().createEntityManager();
+            try {
+                TypedQuery<Long> query = countQuery(countEntityManager, spec);
+                // cùng khóa với cancel(): cancel tới trước thì không chạy, tới sau thì đã thấy session để cancelQuery
+                synchronized (running) {
+                    if (count.isCancelled()) {
+                        return;
+                    }
+                    running.set(countEntityManager.unwrap(Session.class));
+                }
+                count.complete(query.getSingleResult());
+            } catch (RuntimeException e) {
+                count.completeExceptionally(e);
+            } finally {
+                synchronized (running) {
+                    running.set(null);
+                }
+                countEntityManager.close();
+            }
+        });
+        return count;
+    }
+
+    // giống SimpleJpaRepository.count(spec); countAsync truyền EntityManager riêng
+    private TypedQuery<Long> countQuery(EntityManager countEntityManager, Specification<Account> spec) {
+        CriteriaBuilder criteriaBuilder = countEntityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = criteriaBuilder.createQuery(Long.class);
+        Root<Account> root = query.from(Account.class);
+
+        applyWhere(spec, root, query, criteriaBuilder);
+        query.select(query.isDistinct() ? criteriaBuilder.countDistinct(root) : criteriaBuilder.count(root));
+
+        return countEntityManager.createQuery(query);
+    }
+
+    // SELECT a.id ... WHERE <spec> FOR UPDATE (@Where bỏ account đã xóa mềm), rồi
+    // UPDATE account SET ... WHERE id IN (<từng lô id>): các dòng bị khóa tới hết transaction
+    // nên tập id trả về đúng là các dòng được UPDATE — cache / index chỉ làm mới các id này
+    @Override
+    public List<Integer> updateAll(Specification<Account> spec, Map<String, Object> values) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Integer> query = criteriaBuilder.createQuery(Integer.class);
+        Root<Account> root = query.from(Account.class);
+
+        applyWhere(spec, root, query, criteriaBuilder);
+        query.select(root.get(Account_.id));
+
+        List<Integer> ids = entityManager.createQuery(query)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .getResultList();
+
+        for (int from = 0; from < ids.size(); from += UPDATE_BATCH_SIZE) {
+            List<Integer> batch = ids.subList(from, Math.min(from + UPDATE_BATCH_SIZE, ids.size()));
+            CriteriaUpdate<Account> update = criteriaBuilder.createCriteriaUpdate(Account.class);
+            Root<Account> updateRoot = update.from(Account.class);
+
+            values.forEach((attribute, value) -> update.set(updateRoot.<Object>get(attribute), value));
+            update.where(updateRoot.get(Account_.id).in(batch));
+
+            executeUpdate(update);
+        }
+        return ids;
+    }
+
+    // UPDATE account SET <chỉ các cột thay đổi> WHERE id = ? AND is_deleted = 0
+    //   [AND EXISTS (SELECT d.id FROM department d WHERE d.id = :departmentId)]
+    // không SELECT trước; 0 dòng = không tìm thấy account (hoặc department)
+    @Override
+    public int updateById(Integer id, Map<String, Object> values, Integer departmentId) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Account> update = criteriaBuilder.createCriteriaUpdate(Account.class);
+        Root<Account> root = update.from(Account.class);
+
+        values.forEach((attribute, value) -> update.set(root.<Object>get(attribute), value));
+
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(criteriaBuilder.equal(root.get(Account_.id), id));
+        predicates.add(criteriaBuilder.equal(root.get(Account_.isDeleted), IS_DELETED.FALSE));
+
+        if (departmentId != null) {
+            // getReference không truy vấn DB, chỉ để bind department_id
+            update.set(root.get(Account_.department), entityManager.getReference(Department.class, departmentId));
+
+            Subquery<Integer> department = update.subquery(Integer.class);
+            Root<Department> departmentRoot = department.from(Department.class);
+            department.select(departmentRoot.get(Department_.id))
+                    .where(criteriaBuilder.equal(departmentRoot.get(Department_.id), departmentId));
+            predicates.add(criteriaBuilder.exists(department));
+        }
+
+        update.where(predicates.toArray(new Predicate[0]));
+
+        return executeUpdate(update);
+    }
+
+    // giống @Modifying(flushAutomatically = true, clearAutomatically = true)
+    private int executeUpdate(CriteriaUpdate<Account> update) {
+        entityManager.flush();
+        int affected = entityManager.createQuery(update).executeUpdate();
+        entityManager.clear();
+        return affected;
+    }
+
+    // select new AccountDTO(...) from Account a left join a.department d:
+    // không load entity, không qua ModelMapper
+    private TypedQuery<AccountDTO> createDTOQuery(Specification<Account> spec, Sort sort) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<AccountDTO> query = criteriaBuilder.createQuery(AccountDTO.class);
+        Root<Account> root = query.from(Account.class);
+        Join<Account, Department> department = root.join("department", JoinType.LEFT);
+
+        applyWhere(spec, root, query, criteriaBuilder);
+        query.select(criteriaBuilder.construct(
+                AccountDTO.class,
+                root.get(ACCOUNT.ID),
+                root.get(ACCOUNT.USERNAME),
+                root.get(ACCOUNT.FIRST_NAME),
+                root.get(ACCOUNT.LAST_NAME),
+                root.get(ACCOUNT.ROLE),
+                department.get("id"),
+                department.get("name")))
+            .orderBy(QueryUtils.toOrders(sort, root, criteriaBuilder));
+
+        return entityManager.createQuery(query);
+    }
+
+    // chỉ SELECT các cột được yêu cầu, chỉ JOIN department khi cần deptName:
+    //   ?fields=id,username -> select a.id, a.username from account a where ...
+    private TypedQuery<Tuple> createTupleQuery(Specification<Account> spec, Sort sort, AccountProjection fields) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = criteriaBuilder.createTupleQuery();
+        Root<Account> root = query.from(Account.class);
+        Join<Account, Department> department = fields.getNames().contains(ACCOUNT_FIELDS.DEPT_NAME)
+            ? root.join("department", JoinType.LEFT)
+            : null;
+
+        List<Selection<?>> selections = new ArrayList<>();
+        for (String field : fields.getNames()) {
+            switch (field) {
+                case ACCOUNT_FIELDS.DEPT_ID:
+                    // không join: đọc thẳng cột khóa ngoại account.department_id
+                    selections.add((department != null
+                        ? department.get("id")
+                        : root.get("department").get("id")).alias(field));
+                    break;
+                case ACCOUNT_FIELDS.DEPT_NAME:
+                    selections.add(department.get("name").alias(field));
+                    break;
+                default:
+                    selections.add(root.get(field).alias(field));
+            }
+        }
+
+        applyWhere(spec, root, query, criteriaBuilder);
+        query.multiselect(selections)
+            .orderBy(QueryUtils.toOrders(sort, root, criteriaBuilder));
+
+        return entityManager.createQuery(query);
+    }
+
+    private List<AccountDTO> toDTOs(List<Tuple> rows, AccountProjection fields) {
+        List<AccountDTO> accounts = new ArrayList<>(rows.size());
+        for (Tuple row : rows) {
+            AccountDTO account = new AccountDTO();
+            for (String field : fields.getNames()) {
+                switch (field) {
+                    case ACCOUNT.ID:
+                        account.id(row.get(field, Integer.class));
+                        break;
+                    case ACCOUNT.USERNAME:
+                        account.username(row.get(field, String.class));
+                        break;
+                    case ACCOUNT.FIRST_NAME:
+                        account.firstName(row.get(field, String.class));
+                        break;
+                    case ACCOUNT.LAST_NAME:
+                        account.lastName(row.get(field, String.class));
+                        break;
+                    case ACCOUNT.ROLE:
+                        account.role(row.get(field, String.class));
+                        break;
+                    case ACCOUNT_FIELDS.DEPT_ID:
+                        account.departmentId(row.get(field, Integer.class));
+                        break;
+                    case ACCOUNT_FIELDS.DEPT_NAME:
+                        account.departmentName(row.get(field, String.class));
+                        break;
+                    default:
+                        break;
+                }
+            }
+            accounts.add(account);
+        }
+        return accounts;
+    }
+
+    private void applyWhere(
+        Specification<Account> spec,
+        Root<Account> root,
+        CriteriaQuery<?> query,
+        CriteriaBuilder criteriaBuilder
+    ) {
+        if (spec == null) {
+            return;
+        }
+        Predicate predicate = spec.toPredicate(root, query, criteriaBuilder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+    }
+}
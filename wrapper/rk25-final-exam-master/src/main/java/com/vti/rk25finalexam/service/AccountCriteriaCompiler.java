@@ -0,0 +1,209 @@
+package com.vti.rk25finalexam.service;
+
+import com.vti.rk25finalexam.common.Constants.OPERATOR;
+import com.vti.rk25finalexam.entity.Account;
+import com.vti.rk25finalexam.entity.Account_;
+import com.vti.rk25finalexam.entity.criteria.AccountCriteria;
+import com.vti.rk25finalexam.spec.filter.IntegerFilter;
+import com.vti.rk25finalexam.spec.filter.StringFilter;
+import com.vti.rk25finalexam.utils.Utils;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.metamodel.SingularAttribute;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+
+/**
+ * Biên dịch AccountCriteria thành Specification.
+ * Mỗi "shape" (field nào có mặt, dùng operator nào) chỉ được phân tích một lần,
+ * field được resolve qua static metamodel; mỗi request chỉ còn bind giá trị.
+ * Kết hợp với hibernate.criteria.literal_handling_mode=BIND, cùng shape sinh ra
+ * cùng một câu query có tham số nên query plan cache của Hibernate được dùng lại.
+ */
+@Component
+public class AccountCriteriaCompiler {
+
+    // Integer tối đa 10 chữ số, giới hạn 9 để Integer.valueOf không bị tràn
+    private static final int MAX_ID_DIGITS = 9;
+
+    private final Map<String, Plan> plans = new ConcurrentHashMap<>();
+
+    public Specification<Account> compile(AccountCriteria criteria) {
+        return compile(criteria, true);
+    }
+
+    /**
+     * @param includeSearch false nếu criteria.search đã được xử lý ở nơi khác (vd: search index)
+     */
+    public Specification<Account> compile(AccountCriteria criteria, boolean includeSearch) {
+        String shape = shape(criteria, includeSearch);
+        Plan plan = plans.computeIfAbsent(shape, key -> plan(criteria, includeSearch));
+        return (root, query, criteriaBuilder) -> plan.toPredicate(root, criteriaBuilder, criteria);
+    }
+
+    private String shape(AccountCriteria criteria, boolean includeSearch) {
+        StringBuilder shape = new StringBuilder()
+                .append(operator(criteria.getId())).append('|')
+                .append(operator(criteria.getUsername())).append('|')
+                .append(operator(criteria.getFirstName())).append('|')
+                .append(operator(criteria.getLastName())).append('|')
+                .append(operator(criteria.getRole())).append('|');
+        if (includeSearch) {
+            shape.append(operator(criteria.getSearch()))
+                    .append(searchById(criteria.getSearch()) ? "#id" : "");
+        }
+        return shape.toString();
+    }
+
+    private Plan plan(AccountCriteria criteria, boolean includeSearch) {
+        List<Condition> conditions = new ArrayList<>();
+        addIfPresent(conditions, integerCondition(Account_.id, operator(criteria.getId()), AccountCriteria::getId));
+        addIfPresent(conditions, stringCondition(Account_.username, operator(criteria.getUsername()), AccountCriteria::getUsername));
+        addIfPresent(conditions, stringCondition(Account_.firstName, operator(criteria.getFirstName()), AccountCriteria::getFirstName));
+        addIfPresent(conditions, stringCondition(Account_.lastName, operator(criteria.getLastName()), AccountCriteria::getLastName));
+        addIfPresent(conditions, stringCondition(Account_.role, operator(criteria.getRole()), AccountCriteria::getRole));
+
+        String searchOperator = includeSearch ? operator(criteria.getSearch()) : null;
+        if (searchOperator != null) {
+            List<Condition> or = new ArrayList<>();
+            or.add(stringCondition(Account_.username, searchOperator, AccountCriteria::getSearch));
+            or.add(stringCondition(Account_.firstName, searchOperator, AccountCriteria::getSearch));
+            or.add(stringCondition(Account_.lastName, searchOperator, AccountCriteria::getSearch));
+            or.add(stringCondition(Account_.role, searchOperator, AccountCriteria::getSearch));
+            if (searchById(criteria.getSearch())) {
+                or.add((root, criteriaBuilder, c) -> criteriaBuilder.equal(
+                        root.get(Account_.id), Integer.valueOf(c.getSearch().getContains())));
+            }
+            conditions.add((root, criteriaBuilder, c) -> criteriaBuilder.or(or.stream()
+                    .map(condition -> condition.toPredicate(root, criteriaBuilder, c))
+                    .toArray(Predicate[]::new)));
+        }
+        return new Plan(conditions);
+    }
+
+    private Condition integerCondition(
+            SingularAttribute<Account, Integer> attribute,
+            String operator,
+            Function<AccountCriteria, IntegerFilter> filter) {
+        if (operator == null) {
+            return null;
+        }
+        switch (operator) {
+            case OPERATOR.EQUALS:
+                return (root, cb, c) -> cb.equal(root.get(attribute), filter.apply(c).getEquals());
+            case OPERATOR.NOT_EQUALS:
+                return (root, cb, c) -> cb.notEqual(root.get(attribute), filter.apply(c).getNotEquals());
+            case OPERATOR.GREATER_THAN:
+                return (root, cb, c) -> cb.greaterThan(root.get(attribute), filter.apply(c).getGreaterThan());
+            case OPERATOR.LESS_THAN:
+                return (root, cb, c) -> cb.lessThan(root.get(attribute), filter.apply(c).getLessThan());
+            case OPERATOR.GREATER_THAN_OR_EQUALS:
+                return (root, cb, c) -> cb.greaterThanOrEqualTo(root.get(attribute), filter.apply(c).getGreaterThanOrEquals());
+            default:
+                return (root, cb, c) -> cb.lessThanOrEqualTo(root.get(attribute), filter.apply(c).getLessThanOrEquals());
+        }
+    }
+
+    private Condition stringCondition(
+            SingularAttribute<Account, String> attribute,
+            String operator,
+            Function<AccountCriteria, StringFilter> filter) {
+        if (operator == null) {
+            return null;
+        }
+        switch (operator) {
+            case OPERATOR.EQUALS:
+                return (root, cb, c) -> cb.equal(root.get(attribute), filter.apply(c).getEquals());
+            case OPERATOR.NOT_EQUALS:
+                return (root, cb, c) -> cb.notEqual(root.get(attribute), filter.apply(c).getNotEquals());
+            case OPERATOR.CONTAINS:
+                return (root, cb, c) -> cb.like(root.get(attribute), Utils.containsPattern(filter.apply(c).getContains()), Utils.LIKE_ESCAPE);
+            default:
+                return (root, cb, c) -> cb.notLike(root.get(attribute), Utils.containsPattern(filter.apply(c).getNotContains()), Utils.LIKE_ESCAPE);
+        }
+    }
+
+    // operator được dùng khi filter có nhiều giá trị; dùng chung với reactive.AccountSqlCompiler
+    public static String operator(IntegerFilter filter) {
+        if (filter == null) {
+            return null;
+        }
+        if (filter.getEquals() != null) {
+            return OPERATOR.EQUALS;
+        }
+        if (filter.getNotEquals() != null) {
+            return OPERATOR.NOT_EQUALS;
+        }
+        if (filter.getGreaterThan() != null) {
+            return OPERATOR.GREATER_THAN;
+        }
+        if (filter.getLessThan() != null) {
+            return OPERATOR.LESS_THAN;
+        }
+        if (filter.getGreaterThanOrEquals() != null) {
+            return OPERATOR.GREATER_THAN_OR_EQUALS;
+        }
+        if (filter.getLessThanOrEquals() != null) {
+            return OPERATOR.LESS_THAN_OR_EQUALS;
+        }
+        return null;
+    }
+
+    // operator được dùng khi filter có nhiều giá trị
+    public static String operator(StringFilter filter) {
+        if (filter == null) {
+            return null;
+        }
+        if (filter.getEquals() != null) {
+            return OPERATOR.EQUALS;
+        }
+        if (filter.getNotEquals() != null) {
+            return OPERATOR.NOT_EQUALS;
+        }
+        if (filter.getContains() != null) {
+            return OPERATOR.CONTAINS;
+        }
+        if (filter.getNotContains() != null) {
+            return OPERATOR.NOT_CONTAINS;
+        }
+        return null;
+    }
+
+    // search.contains toàn chữ số -> tìm thêm theo id (dùng chung với search index, reactive.AccountSqlCompiler)
+    public static boolean searchById(StringFilter search) {
+        return search != null
+                && OPERATOR.CONTAINS.equals(operator(search))
+                && Utils.checkStringAsDigit(search.getContains())
+                && search.getContains().length() <= MAX_ID_DIGITS;
+    }
+
+    private void addIfPresent(List<Condition> conditions, Condition condition) {
+        if (condition != null) {
+            conditions.add(condition);
+        }
+    }
+
+    private interface Condition {
+        Predicate toPredicate(Root<Account> root, CriteriaBuilder criteriaBuilder, AccountCriteria criteria);
+    }
+
+    private static class Plan {
+        private final List<Condition> conditions;
+
+        private Plan(List<Condition> conditions) {
+            this.conditions = conditions;
+        }
+
+        private Predicate toPredicate(Root<Account> root, CriteriaBuilder criteriaBuilder, AccountCriteria criteria) {
+            return criteriaBuilder.and(conditions.stream()
+                    .map(condition -> condition.toPredicate(root, criteriaBuilder, criteria))
+                    .toArray(Predicate[]::new));
+        }
+    }
+}
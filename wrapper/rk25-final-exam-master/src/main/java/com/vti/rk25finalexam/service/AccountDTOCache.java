@@ -0,0 +1,175 @@
+package com.vti.rk25finalexam.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.vti.rk25finalexam.entity.dto.AccountDTO;
+import com.vti.rk25finalexam.event.AccountChangedEvent;
+import com.vti.rk25finalexam.utils.Utils;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Cache read-through AccountDTO theo id và theo username.
+ * <p>
+ * byUsername chỉ giữ username -> id, DTO nằm duy nhất trong byId nên chỉ cần
+ * evict theo id; username cũ (đã đổi) được phát hiện khi so lại với DTO.
+ * Username so sánh sau khi chuẩn hóa như collation của DB (Utils.normalizeUsername):
+ * "Alice" và "alice" là cùng một account.
+ * Không cache kết quả rỗng, loader đi qua @Where nên account đã xóa mềm không bao giờ vào cache.
+ */
+@Component
+public class AccountDTOCache {
+
+    private final Cache<Integer, AccountDTO> byId;
+
+    private final Cache<String, Integer> byUsername;
+
+    // tăng mỗi lần evict: kết quả load theo username chỉ được cache nếu không có evict xen giữa
+    private final AtomicLong generation = new AtomicLong();
+
+    public AccountDTOCache(
+            @Value("${app.cache.account.maximum-size:10000}") Long maximumSize,
+            @Value("${app.cache.account.expire-after-write:10m}") Duration expireAfterWrite,
+            MeterRegistry meterRegistry) {
+        this.byId = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        this.byUsername = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, byId, "account.dto.id");
+        CaffeineCacheMetrics.monitor(meterRegistry, byUsername, "account.dto.username");
+    }
+
+    public Optional<AccountDTO> getById(Integer id, Function<Integer, Optional<AccountDTO>> loader) {
+        return Optional.ofNullable(byId.get(id, key -> loader.apply(key).orElse(null)));
+    }
+
+    public Optional<AccountDTO> getByUsername(String username, Supplier<Optional<AccountDTO>> loader) {
+        AccountDTO cached = getPresentByUsername(username);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        long loadedAt = generation.get();
+        Optional<AccountDTO> account = loader.get();
+        account.ifPresent(dto -> put(dto, loadedAt));
+        return account;
+    }
+
+    // id chưa có trong cache được nạp bằng một lần gọi loader; id loader không trả về = không tồn tại
+    public Map<Integer, AccountDTO> getAllById(List<Integer> ids, Function<List<Integer>, List<AccountDTO>> loader) {
+        Map<Integer, AccountDTO> result = new HashMap<>(byId.getAllPresent(ids));
+        List<Integer> missing = ids.stream()
+                .filter(id -> !result.containsKey(id))
+                .collect(Collectors.toList());
+        if (!missing.isEmpty()) {
+            long loadedAt = generation.get();
+            for (AccountDTO dto : loader.apply(missing)) {
+                result.put(dto.getId(), dto);
+                put(dto, loadedAt);
+            }
+        }
+        return result;
+    }
+
+    public Map<String, AccountDTO> getAllByUsername(
+            List<String> usernames,
+            Function<List<String>, List<AccountDTO>> loader) {
+        Map<String, AccountDTO> result = new HashMap<>();
+        List<String> missing = new ArrayList<>();
+        for (String username : usernames) {
+            AccountDTO cached = getPresentByUsername(username);
+            if (cached != null) {
+                result.put(username, cached);
+            } else {
+                missing.add(username);
+            }
+        }
+        if (!missing.isEmpty()) {
+            // DB trả về username đã lưu, có thể khác hoa thường / dấu với username gửi lên
+            Map<String, List<String>> requested = missing.stream()
+                    .collect(Collectors.groupingBy(Utils::normalizeUsername));
+            long loadedAt = generation.get();
+            for (AccountDTO dto : loader.apply(missing)) {
+                requested.getOrDefault(Utils.normalizeUsername(dto.getUsername()), List.of())
+                        .forEach(username -> result.put(username, dto));
+                put(dto, loadedAt);
+            }
+        }
+        return result;
+    }
+
+    private AccountDTO getPresentByUsername(String username) {
+        String key = Utils.normalizeUsername(username);
+        Integer id = byUsername.getIfPresent(key);
+        if (id != null) {
+            AccountDTO account = byId.getIfPresent(id);
+            if (account != null && key.equals(Utils.normalizeUsername(account.getUsername()))) {
+                return account;
+            }
+        }
+        return null;
+    }
+
+    // DTO nạp ngoài Caffeine loader chỉ được cache nếu không có evict xen giữa lúc nạp
+    private void put(AccountDTO dto, long loadedAt) {
+        byUsername.put(Utils.normalizeUsername(dto.getUsername()), dto.getId());
+        if (generation.get() == loadedAt) {
+            byId.get(dto.getId(), key -> dto);
+        }
+    }
+
+    // evict ngay và evict lại sau commit: tránh request đọc song song nạp lại dữ liệu cũ
+    public void evict(Integer id) {
+        if (id == null) {
+            return;
+        }
+        invalidate(id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidate(id);
+                }
+            });
+        }
+    }
+
+    // DTO chứa departmentName: department đổi tên / bị xóa thì bỏ mọi account thuộc department đó
+    public void evictDepartment(Integer departmentId) {
+        if (departmentId == null) {
+            return;
+        }
+        generation.incrementAndGet();
+        byId.asMap().values().removeIf(account -> departmentId.equals(account.getDepartmentId()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAccountChanged(AccountChangedEvent event) {
+        event.getIds().forEach(this::invalidate);
+    }
+
+    private void invalidate(Integer id) {
+        generation.incrementAndGet();
+        byId.invalidate(id);
+    }
+}
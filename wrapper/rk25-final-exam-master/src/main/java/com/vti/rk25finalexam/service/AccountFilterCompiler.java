@@ -0,0 +1,295 @@
+package com.vti.rk25finalexam.service;
+
+import com.vti.rk25finalexam.common.Constants.ACCOUNT;
+import com.vti.rk25finalexam.common.Constants.OPERATOR;
+import com.vti.rk25finalexam.entity.Account;
+import com.vti.rk25finalexam.exception.RK25Exception;
+import com.vti.rk25finalexam.exception.Rk25Error;
+import com.vti.rk25finalexam.spec.Expression;
+import com.vti.rk25finalexam.spec.Spec;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+
+/**
+ * Biên dịch cây Expression (AND / OR / NOT / điều kiện) thành một Specification duy nhất.
+ * Phần kiểm tra field, operator và kiểu dữ liệu được làm một lần cho mỗi "shape"
+ * (cây đã chuẩn hóa, bỏ giá trị) và được cache lại; mỗi request chỉ còn convert giá trị.
+ */
+@Component
+public class AccountFilterCompiler {
+
+    private static final Map<String, FieldType> FIELDS = new HashMap<>();
+
+    private static final List<String> STRING_OPERATORS = Arrays.asList(
+            OPERATOR.EQUALS, OPERATOR.NOT_EQUALS, OPERATOR.CONTAINS, OPERATOR.NOT_CONTAINS,
+            OPERATOR.IN, OPERATOR.NOT_IN);
+
+    private static final List<String> INTEGER_OPERATORS = Arrays.asList(
+            OPERATOR.EQUALS, OPERATOR.NOT_EQUALS, OPERATOR.GREATER_THAN,
+            OPERATOR.GREATER_THAN_OR_EQUALS, OPERATOR.LESS_THAN, OPERATOR.LESS_THAN_OR_EQUALS,
+            OPERATOR.IN, OPERATOR.NOT_IN, OPERATOR.BETWEEN);
+
+    private static final List<String> NEGATIVE_OPERATORS = Arrays.asList(
+            OPERATOR.NOT_EQUALS, OPERATOR.NOT_CONTAINS, OPERATOR.NOT_IN);
+
+    private static final String DEPARTMENT = "department";
+
+    static {
+        FIELDS.put(ACCOUNT.ID, new FieldType(ACCOUNT.ID, Integer.class, false));
+        FIELDS.put(ACCOUNT.USERNAME, new FieldType(ACCOUNT.USERNAME, String.class, false));
+        FIELDS.put(ACCOUNT.FIRST_NAME, new FieldType(ACCOUNT.FIRST_NAME, String.class, false));
+        FIELDS.put(ACCOUNT.LAST_NAME, new FieldType(ACCOUNT.LAST_NAME, String.class, false));
+        FIELDS.put(ACCOUNT.ROLE, new FieldType(ACCOUNT.ROLE, String.class, false));
+        FIELDS.put(ACCOUNT.DEPARTMENT_ID, new FieldType(DEPARTMENT + ".id", Integer.class, true));
+        FIELDS.put(ACCOUNT.DEPARTMENT_NAME, new FieldType(DEPARTMENT + ".name", String.class, true));
+    }
+
+    private final Map<String, Plan> plans;
+
+    public AccountFilterCompiler(@Value("${app.filter.cache-size:500}") Integer cacheSize) {
+        this.plans = Collections.synchronizedMap(new LinkedHashMap<String, Plan>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Plan> eldest) {
+                return size() > cacheSize;
+            }
+        });
+    }
+
+    public Specification<Account> compile(Expression expression) {
+        Expression normalized = normalize(expression);
+        String shape = shape(normalized);
+
+        Plan plan = plans.computeIfAbsent(shape, key -> plan(normalized, new int[]{0}));
+
+        List<Object> rawValues = new ArrayList<>();
+        collectValues(normalized, rawValues);
+        Object[] values = new Object[rawValues.size()];
+        plan.bind(rawValues, values);
+
+        return (root, query, criteriaBuilder) -> plan.toPredicate(root, query, criteriaBuilder, values);
+    }
+
+    // gộp AND/OR lồng nhau cùng loại, bỏ NOT kép, sắp xếp con theo shape
+    private Expression normalize(Expression expression) {
+        if (expression == null) {
+            throw invalid("filter.isNotValid", null);
+        }
+        if (expression.getNot() != null) {
+            Expression inner = normalize(expression.getNot());
+            if (inner.getNot() != null) {
+                return inner.getNot();
+            }
+            return new Expression().not(inner);
+        }
+        if (expression.getAnd() != null) {
+            return new Expression().and(normalizeChildren(expression.getAnd(), Expression::getAnd));
+        }
+        if (expression.getOr() != null) {
+            return new Expression().or(normalizeChildren(expression.getOr(), Expression::getOr));
+        }
+        return expression;
+    }
+
+    private List<Expression> normalizeChildren(
+            List<Expression> children,
+            Function<Expression, List<Expression>> sameType) {
+        if (children.isEmpty()) {
+            throw invalid("filter.isNotValid", null);
+        }
+        List<Expression> flattened = new ArrayList<>();
+        for (Expression child : children) {
+            Expression normalized = normalize(child);
+            List<Expression> nested = sameType.apply(normalized);
+            if (nested != null) {
+                flattened.addAll(nested);
+            } else {
+                flattened.add(normalized);
+            }
+        }
+        flattened.sort(Comparator.comparing(this::shape));
+        return flattened;
+    }
+
+    private String shape(Expression expression) {
+        if (expression.getNot() != null) {
+            return "NOT(" + shape(expression.getNot()) + ")";
+        }
+        if (expression.getAnd() != null) {
+            return expression.getAnd().stream().map(this::shape)
+                    .collect(Collectors.joining(",", "AND(", ")"));
+        }
+        if (expression.getOr() != null) {
+            return expression.getOr().stream().map(this::shape)
+                    .collect(Collectors.joining(",", "OR(", ")"));
+        }
+        return expression.getField() + ":" + expression.getOperator();
+    }
+
+    private void collectValues(Expression expression, List<Object> values) {
+        if (expression.getNot() != null) {
+            collectValues(expression.getNot(), values);
+        } else if (expression.getAnd() != null) {
+            expression.getAnd().forEach(child -> collectValues(child, values));
+        } else if (expression.getOr() != null) {
+            expression.getOr().forEach(child -> collectValues(child, values));
+        } else {
+            values.add(expression.getValue());
+        }
+    }
+
+    private Plan plan(Expression expression, int[] slot) {
+        if (expression.getNot() != null) {
+            Plan inner = plan(expression.getNot(), slot);
+            return new Plan(inner::bind, (root, query, criteriaBuilder, values) ->
+                    criteriaBuilder.not(inner.toPredicate(root, query, criteriaBuilder, values)));
+        }
+        if (expression.getAnd() != null || expression.getOr() != null) {
+            boolean and = expression.getAnd() != null;
+            List<Plan> children = (and ? expression.getAnd() : expression.getOr())
+                    .stream()
+                    .map(child -> plan(child, slot))
+                    .collect(Collectors.toList());
+            return new Plan(
+                    (raw, values) -> children.forEach(child -> child.bind(raw, values)),
+                    (root, query, criteriaBuilder, values) -> {
+                        Predicate[] predicates = children.stream()
+                                .map(child -> child.toPredicate(root, query, criteriaBuilder, values))
+                                .toArray(Predicate[]::new);
+                        return and
+                                ? criteriaBuilder.and(predicates)
+                                : criteriaBuilder.or(predicates);
+                    });
+        }
+        return leaf(expression, slot[0]++);
+    }
+
+    private Plan leaf(Expression expression, int slot) {
+        FieldType fieldType = FIELDS.get(expression.getField());
+        if (fieldType == null) {
+            throw invalid("filter.field.isNotValid", expression.getField());
+        }
+        String operator = expression.getOperator();
+        List<String> operators = fieldType.type == Integer.class ? INTEGER_OPERATORS : STRING_OPERATORS;
+        if (operator == null || !operators.contains(operator)) {
+            throw invalid("filter.operator.isNotValid", operator);
+        }
+        boolean list = OPERATOR.IN.equals(operator)
+                || OPERATOR.NOT_IN.equals(operator)
+                || OPERATOR.BETWEEN.equals(operator);
+        boolean range = OPERATOR.BETWEEN.equals(operator);
+
+        boolean negative = NEGATIVE_OPERATORS.contains(operator);
+
+        return new Plan(
+                (raw, values) -> values[slot] = convert(fieldType, raw.get(slot), list, range),
+                (root, query, criteriaBuilder, values) -> {
+                    Predicate predicate = new Spec<Account>(new Expression(fieldType.path, operator, values[slot]))
+                            .toPredicate(root, query, criteriaBuilder);
+                    if (!fieldType.optional) {
+                        return predicate;
+                    }
+                    // account không có department: so sánh trên cột NULL cho ra NULL và NOT(NULL) vẫn là NULL,
+                    // nên ép về true (điều kiện phủ định) / false (điều kiện khẳng định)
+                    Predicate noDepartment = criteriaBuilder.isNull(root.get(DEPARTMENT));
+                    return negative
+                            ? criteriaBuilder.or(noDepartment, predicate)
+                            : criteriaBuilder.and(criteriaBuilder.not(noDepartment), predicate);
+                });
+    }
+
+    private Object convert(FieldType fieldType, Object raw, boolean list, boolean range) {
+        if (!list) {
+            return convert(fieldType, raw);
+        }
+        Collection<?> items = raw instanceof Collection
+                ? (Collection<?>) raw
+                : Arrays.asList(String.valueOf(raw).split(","));
+        if (range && items.size() != 2) {
+            throw invalid("filter.value.isNotValid", raw);
+        }
+        return items.stream()
+                .map(item -> convert(fieldType, item))
+                .collect(Collectors.toList());
+    }
+
+    private Object convert(FieldType fieldType, Object raw) {
+        if (raw == null || "".equals(raw)) {
+            throw invalid("filter.value.isNotValid", raw);
+        }
+        if (fieldType.type == Integer.class) {
+            if (raw instanceof Integer) {
+                return raw;
+            }
+            try {
+                return Integer.valueOf(String.valueOf(raw).trim());
+            } catch (NumberFormatException e) {
+                throw invalid("filter.value.isNotValid", raw);
+            }
+        }
+        return String.valueOf(raw);
+    }
+
+    private RK25Exception invalid(String code, Object param) {
+        return new RK25Exception()
+                .rk25Error(new Rk25Error()
+                        .code(code)
+                        .param(param));
+    }
+
+    private static class FieldType {
+        private final String path;
+        private final Class<?> type;
+        // account có thể không có department
+        private final boolean optional;
+
+        private FieldType(String path, Class<?> type, boolean optional) {
+            this.path = path;
+            this.type = type;
+            this.optional = optional;
+        }
+    }
+
+    private interface Binder {
+        void bind(List<Object> raw, Object[] values);
+    }
+
+    private interface PredicateBuilder {
+        Predicate toPredicate(Root<Account> root, CriteriaQuery<?> query,
+                              CriteriaBuilder criteriaBuilder, Object[] values);
+    }
+
+    private static class Plan {
+        private final Binder binder;
+        private final PredicateBuilder predicateBuilder;
+
+        private Plan(Binder binder, PredicateBuilder predicateBuilder) {
+            this.binder = binder;
+            this.predicateBuilder = predicateBuilder;
+        }
+
+        private void bind(List<Object> raw, Object[] values) {
+            binder.bind(raw, values);
+        }
+
+        private Predicate toPredicate(Root<Account> root, CriteriaQuery<?> query,
+                                      CriteriaBuilder criteriaBuilder, Object[] values) {
+            return predicateBuilder.toPredicate(root, query, criteriaBuilder, values);
+        }
+    }
+}
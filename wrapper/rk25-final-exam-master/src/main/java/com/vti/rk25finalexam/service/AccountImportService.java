@@ -0,0 +1,10 @@
+package com.vti.rk25finalexam.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+public interface AccountImportService {
+
+    void importAccounts(InputStream inputStream, OutputStream outputStream) throws IOException;
+}
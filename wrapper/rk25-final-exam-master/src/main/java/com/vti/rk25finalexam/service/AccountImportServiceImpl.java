@@ -0,0 +1,294 @@
+package com.vti.rk25finalexam.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vti.rk25finalexam.common.Constants;
+import com.vti.rk25finalexam.common.Constants.IMPORT_STATUS;
+import com.vti.rk25finalexam.common.Constants.IS_DELETED;
+import com.vti.rk25finalexam.entity.dto.AccountCreateDTO;
+import com.vti.rk25finalexam.entity.dto.AccountImportResultDTO;
+import com.vti.rk25finalexam.exception.RK25Exception;
+import com.vti.rk25finalexam.exception.Rk25Error;
+import com.vti.rk25finalexam.utils.Utils;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import javax.validation.constraints.NotBlank;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.validator.constraints.Length;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Import account theo lô: body là một JSON array AccountCreateDTO, được đọc dạng stream
+ * và xử lý từng chunk (app.import.batch-size dòng). Mỗi chunk:
+ * kiểm tra ràng buộc của AccountCreateDTO (giống POST /accounts), username / department bằng một câu IN,
+ * insert bằng JDBC batch, rồi ghi kết quả từng dòng ra response ngay.
+ * Chỉ giữ trạng thái của chunk hiện tại: username trùng với chunk trước đã nằm trong DB,
+ * unique key là chốt chặn cuối.
+ */
+@Slf4j
+@Service
+public class AccountImportServiceImpl implements AccountImportService {
+
+    private static final String INSERT_ACCOUNT =
+        "insert into account (username, first_name, last_name, role, department_id, is_deleted) "
+            + "values (:username, :firstName, :lastName, :role, :departmentId, :isDeleted)";
+
+    // không lọc is_deleted: unique constraint của username áp dụng cho cả account đã xóa
+    private static final String SELECT_EXISTED_USERNAMES =
+        "select username from account where username in (:usernames)";
+
+    private static final String SELECT_EXISTED_DEPARTMENTS =
+        "select id from department where id in (:ids)";
+
+    private static final String SELECT_CREATED_ACCOUNTS =
+        "select id, username from account where username in (:usernames)";
+
+    // annotation ràng buộc -> hậu tố error code, vd: username + @NotBlank -> account.username.isBlank
+    private static final Map<Class<? extends Annotation>, String> CONSTRAINT_CODES =
+        Map.of(NotBlank.class, "isBlank", Length.class, "isTooLong");
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final AccountSearchIndex accountSearchIndex;
+    private final UsernameFilter usernameFilter;
+    private final Validator validator;
+
+    @Value("${app.import.batch-size:500}")
+    private Integer batchSize;
+
+    public AccountImportServiceImpl(
+        NamedParameterJdbcTemplate jdbcTemplate,
+        TransactionTemplate transactionTemplate,
+        ObjectMapper objectMapper,
+        AccountSearchIndex accountSearchIndex,
+        UsernameFilter usernameFilter,
+        Validator validator
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.accountSearchIndex = accountSearchIndex;
+        this.usernameFilter = usernameFilter;
+        this.validator = validator;
+    }
+
+    @Override
+    public void importAccounts(InputStream inputStream, OutputStream outputStream) throws IOException {
+        JsonParser parser = objectMapper.getFactory().createParser(inputStream);
+        if (parser.nextToken() != JsonToken.START_ARRAY) {
+            throw new RK25Exception()
+                .rk25Error(new Rk25Error()
+                    .code("account.import.bodyIsNotValid"));
+        }
+
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+            generator.writeStartArray();
+
+            List<AccountCreateDTO> chunk = new ArrayList<>(batchSize);
+            int index = 0;
+            int chunkStart = 0;
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                chunk.add(objectMapper.readValue(parser, AccountCreateDTO.class));
+                index++;
+                if (chunk.size() == batchSize) {
+                    writeResults(generator, importChunk(chunkStart, chunk));
+                    chunk.clear();
+                    chunkStart = index;
+                }
+            }
+            if (!chunk.isEmpty()) {
+                writeResults(generator, importChunk(chunkStart, chunk));
+            }
+
+            generator.writeEndArray();
+        }
+    }
+
+    private List<AccountImportResultDTO> importChunk(int chunkStart, List<AccountCreateDTO> chunk) {
+        AccountImportResultDTO[] results = new AccountImportResultDTO[chunk.size()];
+
+        // chỉ những username bloom filter báo "có thể có" mới cần kiểm tra DB
+        Set<String> usernames = chunk.stream()
+            .map(AccountCreateDTO::getUsername)
+            .filter(username -> username != null && !username.trim().isEmpty())
+            .filter(usernameFilter::mightContain)
+            .collect(Collectors.toSet());
+        Set<Integer> departmentIds = chunk.stream()
+            .map(AccountCreateDTO::getDepartmentId)
+            .filter(id -> id != null)
+            .collect(Collectors.toSet());
+
+        // so sánh theo collation của DB (không phân biệt hoa thường / dấu), giống BatchLookup
+        Set<String> existedUsernames = usernames.isEmpty()
+            ? new HashSet<>()
+            : jdbcTemplate.queryForList(SELECT_EXISTED_USERNAMES,
+                    new MapSqlParameterSource("usernames", usernames), String.class).stream()
+                .map(Utils::normalizeUsername)
+                .collect(Collectors.toSet());
+        usernames.forEach(username ->
+            usernameFilter.recordPositive(existedUsernames.contains(Utils.normalizeUsername(username))));
+        Set<Integer> existedDepartments = departmentIds.isEmpty()
+            ? new HashSet<>()
+            : new HashSet<>(jdbcTemplate.queryForList(SELECT_EXISTED_DEPARTMENTS,
+                new MapSqlParameterSource("ids", departmentIds), Integer.class));
+
+        // username (đã chuẩn hóa) đã gặp ở các dòng trước trong chunk
+        Set<String> seenUsernames = new HashSet<>();
+        List<Integer> validRows = new ArrayList<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            AccountCreateDTO account = chunk.get(i);
+            String errorCode = validate(account, existedUsernames, existedDepartments, seenUsernames);
+            results[i] = new AccountImportResultDTO()
+                .index(chunkStart + i)
+                .username(account.getUsername());
+            if (errorCode != null) {
+                results[i].status(IMPORT_STATUS.FAILED).errorCode(errorCode);
+            } else {
+                seenUsernames.add(Utils.normalizeUsername(account.getUsername()));
+                validRows.add(i);
+            }
+        }
+
+        insert(chunk, validRows, results);
+
+        return Arrays.asList(results);
+    }
+
+    private String validate(
+        AccountCreateDTO account,
+        Set<String> existedUsernames,
+        Set<Integer> existedDepartments,
+        Set<String> seenUsernames
+    ) {
+        String violation = validateConstraints(account);
+        if (violation != null) {
+            return violation;
+        }
+        String username = Utils.normalizeUsername(account.getUsername());
+        if (existedUsernames.contains(username)) {
+            return "account.username.isExisted";
+        }
+        if (seenUsernames.contains(username)) {
+            return "account.username.isDuplicated";
+        }
+        if (!Constants.ROLE.ADMIN.equals(account.getRole())
+            && !Constants.ROLE.EMPLOYEE.equals(account.getRole())
+            && !Constants.ROLE.MANAGER.equals(account.getRole())) {
+            return "account.role.isNotValid";
+        }
+        if (account.getDepartmentId() == null) {
+            return "account.departmentId.isNull";
+        }
+        if (!existedDepartments.contains(account.getDepartmentId())) {
+            return "account.departmentId.isNotExisted";
+        }
+        return null;
+    }
+
+    private String validateConstraints(AccountCreateDTO account) {
+        return validator.validate(account).stream()
+            .map(this::toErrorCode)
+            .min(Comparator.naturalOrder())
+            .orElse(null);
+    }
+
+    private String toErrorCode(ConstraintViolation<AccountCreateDTO> violation) {
+        Class<? extends Annotation> constraint = violation.getConstraintDescriptor().getAnnotation().annotationType();
+        return "account." + violation.getPropertyPath() + "."
+            + CONSTRAINT_CODES.getOrDefault(constraint, "isNotValid");
+    }
+
+    private void insert(List<AccountCreateDTO> chunk, List<Integer> validRows, AccountImportResultDTO[] results) {
+        if (validRows.isEmpty()) {
+            return;
+        }
+        SqlParameterSource[] batch = validRows.stream()
+            .map(i -> toParameters(chunk.get(i)))
+            .toArray(SqlParameterSource[]::new);
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_ACCOUNT, batch));
+        } catch (DataAccessException e) {
+            // lô bị lỗi (vd: username vừa được tạo song song) -> insert lại từng dòng để biết dòng nào lỗi
+            log.warn("Import batch failed, retrying row by row: {}", e.getMessage());
+            insertOneByOne(chunk, validRows, results);
+            return;
+        }
+        markCreated(chunk, validRows, results);
+    }
+
+    private void insertOneByOne(List<AccountCreateDTO> chunk, List<Integer> validRows, AccountImportResultDTO[] results) {
+        List<Integer> inserted = new ArrayList<>();
+        for (Integer i : validRows) {
+            try {
+                jdbcTemplate.update(INSERT_ACCOUNT, toParameters(chunk.get(i)));
+                inserted.add(i);
+            } catch (DataAccessException e) {
+                results[i].status(IMPORT_STATUS.FAILED).errorCode(Utils.isDuplicateKey(e)
+                    ? "account.username.isExisted"
+                    : "account.import.insertFailed");
+            }
+        }
+        markCreated(chunk, inserted, results);
+    }
+
+    // lấy id AUTO_INCREMENT vừa sinh bằng một câu IN;
+    // JDBC insert không qua entity listener nên cập nhật search index ở đây
+    private void markCreated(List<AccountCreateDTO> chunk, List<Integer> rows, AccountImportResultDTO[] results) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        Set<String> usernames = rows.stream()
+            .map(i -> chunk.get(i).getUsername())
+            .collect(Collectors.toSet());
+        Map<String, Integer> ids = new HashMap<>();
+        jdbcTemplate.query(SELECT_CREATED_ACCOUNTS, new MapSqlParameterSource("usernames", usernames),
+            (RowCallbackHandler) rs -> ids.put(rs.getString("username"), rs.getInt("id")));
+        for (Integer i : rows) {
+            AccountCreateDTO account = chunk.get(i);
+            results[i].status(IMPORT_STATUS.CREATED).id(ids.get(account.getUsername()));
+            usernameFilter.put(account.getUsername());
+            accountSearchIndex.put(results[i].getId(), account.getUsername(),
+                account.getFirstName(), account.getLastName(), account.getRole());
+        }
+    }
+
+    private SqlParameterSource toParameters(AccountCreateDTO account) {
+        return new MapSqlParameterSource()
+            .addValue("username", account.getUsername())
+            .addValue("firstName", account.getFirstName())
+            .addValue("lastName", account.getLastName())
+            .addValue("role", account.getRole())
+            .addValue("departmentId", account.getDepartmentId())
+            .addValue("isDeleted", IS_DELETED.FALSE);
+    }
+
+    private void writeResults(JsonGenerator generator, List<AccountImportResultDTO> results) throws IOException {
+        for (AccountImportResultDTO result : results) {
+            objectMapper.writeValue(generator, result);
+        }
+        generator.flush();
+    }
+}
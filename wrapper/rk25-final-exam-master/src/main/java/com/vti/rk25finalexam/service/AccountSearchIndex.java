@@ -0,0 +1,280 @@
+package com.vti.rk25finalexam.service;
+
+import com.vti.rk25finalexam.common.Constants.IS_DELETED;
+import com.vti.rk25finalexam.entity.Account;
+import com.vti.rk25finalexam.event.AccountChangedEvent;
+import com.vti.rk25finalexam.repository.AccountRepository;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Inverted index trigram trên username, firstName, lastName, role của account
+ * (chưa bị xóa), dùng để thay thế 4 điều kiện LIKE '%x%' của criteria.search
+ * bằng một tập id ứng viên. Chữ thường, bỏ dấu như collation _ai_ci của MySQL.
+ */
+@Slf4j
+@Component
+public class AccountSearchIndex {
+
+    private static final int GRAM = 3;
+
+    private static final char FIELD_SEPARATOR = '\u0000';
+
+    private final AccountRepository accountRepository;
+
+    // rebuild dựng index mới rồi thay một lần: search vẫn dùng index cũ trong lúc nạp lại
+    private volatile Index index = new Index();
+
+    // id bị put / remove trong lúc rebuild đang chạy (null = không rebuild): lô đọc trước đó
+    // có thể đã cũ (vd: account vừa bị xóa mềm), cuối rebuild lấy trạng thái của các id này từ index đang dùng
+    private Set<Integer> touched;
+
+    private volatile boolean ready = false;
+
+    // một thread nạp index; yêu cầu nạp lại xếp hàng sau lần đang chạy
+    private final ExecutorService loader = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "account-search-index");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final AtomicInteger pendingLoads = new AtomicInteger();
+
+    @Value("${app.search.index.enabled:true}")
+    private Boolean enabled;
+
+    @Value("${app.search.index.load-batch-size:5000}")
+    private Integer loadBatchSize;
+
+    @Value("${app.search.index.max-candidates:10000}")
+    private Integer maxCandidates;
+
+    public AccountSearchIndex(AccountRepository accountRepository) {
+        this.accountRepository = accountRepository;
+    }
+
+    // lần nạp đầu: search trả về empty, bên gọi dùng LIKE; nạp lại: vẫn dùng index cũ đến khi nạp xong
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!enabled) {
+            return;
+        }
+        pendingLoads.incrementAndGet();
+        loader.execute(() -> {
+            try {
+                // còn yêu cầu mới hơn trong hàng đợi: để lần đó nạp
+                if (pendingLoads.get() == 1) {
+                    rebuild();
+                }
+            } finally {
+                pendingLoads.decrementAndGet();
+            }
+        });
+    }
+
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        Index building = new Index();
+        synchronized (this) {
+            touched = new HashSet<>();
+        }
+        try {
+            Integer lastId = 0;
+            while (true) {
+                List<Object[]> rows = accountRepository.findSearchColumnsAfter(lastId, PageRequest.of(0, loadBatchSize));
+                indexBatch(building, rows);
+                if (rows.size() < loadBatchSize) {
+                    break;
+                }
+                lastId = (Integer) rows.get(rows.size() - 1)[0];
+            }
+            swap(building);
+        } finally {
+            synchronized (this) {
+                touched = null;
+            }
+        }
+        log.info("Account search index loaded {} accounts, {} grams in {} ms",
+                building.documents.size(), building.postings.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * @return tập id khớp chính xác với "contains", hoặc empty nếu index
+     * chưa sẵn sàng / từ khóa quá ngắn / quá nhiều kết quả — khi đó gọi
+     * bên ngoài phải dùng lại LIKE.
+     */
+    public Optional<Set<Integer>> search(String contains) {
+        if (!ready || contains == null || contains.length() < GRAM) {
+            return Optional.empty();
+        }
+        String term = normalize(contains);
+        Index index = this.index;
+
+        List<Set<Integer>> lists = new ArrayList<>();
+        for (String gram : grams(term)) {
+            Set<Integer> ids = index.postings.get(gram);
+            if (ids == null) {
+                return Optional.of(Collections.emptySet());
+            }
+            lists.add(ids);
+        }
+        lists.sort((a, b) -> Integer.compare(a.size(), b.size()));
+
+        Set<Integer> result = new HashSet<>();
+        for (Integer id : lists.get(0)) {
+            if (!containsAll(lists, id)) {
+                continue;
+            }
+            // loại bỏ false positive: các gram có mặt nhưng không liền nhau
+            String document = index.documents.get(id);
+            if (document != null && document.contains(term)) {
+                result.add(id);
+                if (result.size() > maxCandidates) {
+                    return Optional.empty();
+                }
+            }
+        }
+        return Optional.of(result);
+    }
+
+    // bỏ qua id đã bị put / remove sau khi bắt đầu rebuild: giá trị đọc được có thể đã cũ
+    private synchronized void indexBatch(Index building, List<Object[]> rows) {
+        for (Object[] row : rows) {
+            Integer id = (Integer) row[0];
+            if (!touched.contains(id)) {
+                building.add(id, document((String) row[1], (String) row[2], (String) row[3], (String) row[4]));
+            }
+        }
+    }
+
+    private synchronized void swap(Index building) {
+        for (Integer id : touched) {
+            building.remove(id);
+            String document = index.documents.get(id);
+            if (document != null) {
+                building.add(id, document);
+            }
+        }
+        index = building;
+        ready = true;
+    }
+
+    public synchronized void put(Account account) {
+        remove(account.getId());
+        if (!IS_DELETED.TRUE.equals(account.getIsDeleted())) {
+            index.add(account.getId(), document(account.getUsername(), account.getFirstName(),
+                    account.getLastName(), account.getRole()));
+        }
+    }
+
+    // các account bị UPDATE set-based: nạp lại từ DB, id không còn (đã xóa mềm) thì bỏ khỏi index
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAccountChanged(AccountChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        List<Integer> changed = new ArrayList<>(event.getIds());
+        Set<Integer> missing = new HashSet<>(changed);
+        for (int from = 0; from < changed.size(); from += loadBatchSize) {
+            List<Integer> ids = changed.subList(from, Math.min(from + loadBatchSize, changed.size()));
+            for (Object[] row : accountRepository.findSearchColumnsByIdIn(ids)) {
+                missing.remove((Integer) row[0]);
+                put((Integer) row[0], (String) row[1], (String) row[2], (String) row[3], (String) row[4]);
+            }
+        }
+        missing.forEach(this::remove);
+    }
+
+    public synchronized void put(Integer id, String username, String firstName, String lastName, String role) {
+        remove(id);
+        index.add(id, document(username, firstName, lastName, role));
+    }
+
+    public synchronized void remove(Integer id) {
+        if (touched != null) {
+            touched.add(id);
+        }
+        index.remove(id);
+    }
+
+    private String document(String username, String firstName, String lastName, String role) {
+        return normalize(username) + FIELD_SEPARATOR
+                + normalize(firstName) + FIELD_SEPARATOR
+                + normalize(lastName) + FIELD_SEPARATOR
+                + normalize(role);
+    }
+
+    private boolean containsAll(List<Set<Integer>> lists, Integer id) {
+        for (int i = 1; i < lists.size(); i++) {
+            if (!lists.get(i).contains(id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Set<String> grams(String value) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= value.length(); i++) {
+            String gram = value.substring(i, i + GRAM);
+            if (gram.indexOf(FIELD_SEPARATOR) < 0) {
+                grams.add(gram);
+            }
+        }
+        return grams;
+    }
+
+    private String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        return Normalizer.normalize(value, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .toLowerCase(Locale.ROOT);
+    }
+
+    private static class Index {
+
+        private final Map<String, Set<Integer>> postings = new ConcurrentHashMap<>();
+
+        private final Map<Integer, String> documents = new ConcurrentHashMap<>();
+
+        private void add(Integer id, String document) {
+            documents.put(id, document);
+            for (String gram : grams(document)) {
+                postings.computeIfAbsent(gram, key -> ConcurrentHashMap.newKeySet()).add(id);
+            }
+        }
+
+        private void remove(Integer id) {
+            String document = documents.remove(id);
+            if (document == null) {
+                return;
+            }
+            for (String gram : grams(document)) {
+                Set<Integer> ids = postings.get(gram);
+                if (ids != null) {
+                    ids.remove(id);
+                }
+            }
+        }
+    }
+}
@@ -4,13 +4,21 @@ import com.vti.rk25finalexam.entity.Account;
 import com.vti.rk25finalexam.entity.criteria.AccountCriteria;
 import com.vti.rk25finalexam.entity.dto.AccountCreateDTO;
 import com.vti.rk25finalexam.entity.dto.AccountDTO;
+import com.vti.rk25finalexam.entity.dto.AccountBulkUpdateDTO;
 import com.vti.rk25finalexam.entity.dto.AccountUpdateDTO;
+import com.vti.rk25finalexam.entity.dto.BatchResultDTO;
+import com.vti.rk25finalexam.entity.dto.BulkResultDTO;
+import com.vti.rk25finalexam.entity.dto.CursorPage;
+import com.vti.rk25finalexam.repository.AccountProjection;
 import com.vti.rk25finalexam.spec.Expression;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.data.crossstore.ChangeSetPersister.NotFoundException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
 public interface AccountService {
 
@@ -26,8 +34,14 @@ public interface AccountService {
 
     AccountDTO update(Integer id, AccountUpdateDTO accountUpdateDTO);
 
+    void patch(Integer id, AccountUpdateDTO accountUpdateDTO);
+
     Account delete(Integer id) throws NotFoundException;
 
+    BulkResultDTO deleteAll(AccountCriteria criteria, List<Integer> ids);
+
+    BulkResultDTO updateAll(AccountCriteria criteria, AccountBulkUpdateDTO accountBulkUpdateDTO);
+
     Page<AccountDTO> getAllReturnDTO(Pageable pageable);
 
     List<AccountDTO> findByUsernameContains(String username);
@@ -36,9 +50,27 @@ public interface AccountService {
 
     Optional<AccountDTO> findByUsernameEquals(String username);
 
-    List<AccountDTO> getAll(Expression expression) throws Exception;
+    BatchResultDTO<AccountDTO, Integer> findAllByIds(List<Integer> ids);
+
+    BatchResultDTO<AccountDTO, String> findAllByUsernames(List<String> usernames);
+
+    List<AccountDTO> getAll(Expression expression, AccountProjection fields);
 
-    Page<AccountDTO> findAllByCriteria(AccountCriteria criteria, Pageable pageable);
+    List<AccountDTO> getAll(String filter, AccountProjection fields);
+
+    Page<AccountDTO> findAllByCriteria(AccountCriteria criteria, Pageable pageable, AccountProjection fields);
+
+    CursorPage<AccountDTO> findAllByCriteria(
+        AccountCriteria criteria,
+        String after,
+        Pageable pageable,
+        AccountProjection fields);
+
+    Slice<AccountDTO> findSliceByCriteria(AccountCriteria criteria, Pageable pageable, AccountProjection fields);
+
+    Page<AccountDTO> findAllByCriteriaParallelCount(AccountCriteria criteria, Pageable pageable, AccountProjection fields);
 
     AccountDTO create(AccountCreateDTO accountCreateDTO);
+
+    void export(AccountCriteria criteria, String format, OutputStream outputStream) throws IOException;
 }
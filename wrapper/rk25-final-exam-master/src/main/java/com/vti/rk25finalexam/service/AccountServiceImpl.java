@@ -1,71 +1,136 @@
 package com.vti.rk25finalexam.service;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
 import com.vti.rk25finalexam.common.Constants;
 import com.vti.rk25finalexam.common.Constants.ACCOUNT;
+import com.vti.rk25finalexam.common.Constants.EXPORT_FORMAT;
 import com.vti.rk25finalexam.common.Constants.IS_DELETED;
 import com.vti.rk25finalexam.entity.Account;
+import com.vti.rk25finalexam.entity.Account_;
 import com.vti.rk25finalexam.entity.criteria.AccountCriteria;
 import com.vti.rk25finalexam.entity.dto.AccountCreateDTO;
 import com.vti.rk25finalexam.entity.dto.AccountDTO;
+import com.vti.rk25finalexam.entity.dto.AccountBulkUpdateDTO;
 import com.vti.rk25finalexam.entity.dto.AccountUpdateDTO;
+import com.vti.rk25finalexam.entity.dto.BatchResultDTO;
+import com.vti.rk25finalexam.entity.dto.BulkResultDTO;
+import com.vti.rk25finalexam.entity.dto.CursorPage;
+import com.vti.rk25finalexam.event.AccountChangedEvent;
 import com.vti.rk25finalexam.exception.RK25Exception;
 import com.vti.rk25finalexam.exception.Rk25Error;
+import com.vti.rk25finalexam.mapper.AccountMapper;
+import com.vti.rk25finalexam.repository.AccountProjection;
 import com.vti.rk25finalexam.repository.AccountRepository;
-import com.vti.rk25finalexam.spec.AccountSpec;
+import com.vti.rk25finalexam.spec.Cursor;
 import com.vti.rk25finalexam.spec.Expression;
-
+import com.vti.rk25finalexam.spec.FilterParser;
+import com.vti.rk25finalexam.spec.KeysetSpec;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
-import com.vti.rk25finalexam.spec.filter.IntegerFilter;
+import com.vti.rk25finalexam.spec.filter.StringFilter;
 import com.vti.rk25finalexam.utils.Utils;
-import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.crossstore.ChangeSetPersister.NotFoundException;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
-
-import javax.transaction.Transactional;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class AccountServiceImpl implements AccountService {
 
     private final AccountRepository accountRepository;
-    private final ModelMapper modelMapper;
-    private final QueryService<Account> queryService;
+    private final AccountMapper accountMapper;
     private final DepartmentService departmentService;
+    private final ThreadPoolTaskExecutor countQueryExecutor;
+    private final AccountSearchIndex accountSearchIndex;
+    private final AccountFilterCompiler accountFilterCompiler;
+    private final AccountCriteriaCompiler accountCriteriaCompiler;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final AccountDTOCache accountDTOCache;
+    private final UsernameFilter usernameFilter;
+    private final BatchLookup batchLookup;
+
+    @Value("${app.export.fetch-size:1000}")
+    private Integer exportFetchSize;
 
     public AccountServiceImpl(AccountRepository accountRepository,
-                              ModelMapper modelMapper,
-                              QueryService<Account> queryService,
-                              DepartmentService departmentService) {
+                              AccountMapper accountMapper,
+                              DepartmentService departmentService,
+                              ThreadPoolTaskExecutor countQueryExecutor,
+                              AccountSearchIndex accountSearchIndex,
+                              AccountFilterCompiler accountFilterCompiler,
+                              AccountCriteriaCompiler accountCriteriaCompiler,
+                              ObjectMapper objectMapper,
+                              ApplicationEventPublisher applicationEventPublisher,
+                              AccountDTOCache accountDTOCache,
+                              UsernameFilter usernameFilter,
+                              BatchLookup batchLookup) {
         this.accountRepository = accountRepository;
-        this.modelMapper = modelMapper;
-        this.queryService = queryService;
+        this.accountMapper = accountMapper;
         this.departmentService = departmentService;
+        this.countQueryExecutor = countQueryExecutor;
+        this.accountSearchIndex = accountSearchIndex;
+        this.accountFilterCompiler = accountFilterCompiler;
+        this.accountCriteriaCompiler = accountCriteriaCompiler;
+        this.objectMapper = objectMapper;
+        this.applicationEventPublisher = applicationEventPublisher;
+        this.accountDTOCache = accountDTOCache;
+        this.usernameFilter = usernameFilter;
+        this.batchLookup = batchLookup;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Account> getAll() {
         return accountRepository.findAll();
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Optional<Account> getOne(Integer id) {
         return accountRepository.findById(id);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Optional<AccountDTO> getOneReturnDTO(Integer id) {
-        return getOne(id).map(account -> modelMapper.map(account, AccountDTO.class));
+        return accountDTOCache.getById(id, accountRepository::findDTOById);
     }
 
     @Override
     public Account save(Account account) {
-        return accountRepository.save(account);
+        Account saved = accountRepository.save(account);
+        accountDTOCache.evict(saved.getId());
+        usernameFilter.put(saved.getUsername());
+        return saved;
     }
 
     @Override
@@ -84,8 +149,9 @@ public class AccountServiceImpl implements AccountService {
         //           nếu departmentId != null -> update department mới cho account
         // nếu không có account ->  return null;
 
+        accountDTOCache.evict(id);
         return getOne(id)
-                .map(account -> modelMapper.map(accountUpdateDTO, Account.class))
+                .map(account -> accountMapper.toEntity(accountUpdateDTO).id(id))
                 .map(account -> {
                     Optional.ofNullable(accountUpdateDTO.getDepartmentId())
                             .flatMap(departmentdId -> departmentService.getOne(departmentdId)
@@ -96,10 +162,64 @@ public class AccountServiceImpl implements AccountService {
                     return account;
                 })
                 .map(this::save)
-                .map(account -> modelMapper.map(account, AccountDTO.class))
+                .map(accountMapper::toDTO)
                 .orElse(null);
     }
 
+    @Override
+    @Transactional
+    public void patch(Integer id, AccountUpdateDTO accountUpdateDTO) {
+        // chỉ các trường khác null được cập nhật
+        Map<String, Object> values = new HashMap<>();
+        Optional.ofNullable(accountUpdateDTO.getUsername())
+                .ifPresent(username -> values.put(Account_.USERNAME, username));
+        Optional.ofNullable(accountUpdateDTO.getFirstName())
+                .ifPresent(firstName -> values.put(Account_.FIRST_NAME, firstName));
+        Optional.ofNullable(accountUpdateDTO.getLastName())
+                .ifPresent(lastName -> values.put(Account_.LAST_NAME, lastName));
+        Optional.ofNullable(accountUpdateDTO.getRole())
+                .ifPresent(role -> {
+                    validateRole(role);
+                    values.put(Account_.ROLE, role);
+                });
+        Integer departmentId = accountUpdateDTO.getDepartmentId();
+        if (values.isEmpty() && departmentId == null) {
+            throw new RK25Exception()
+                    .rk25Error(new Rk25Error()
+                            .code("account.update.valueIsEmpty"));
+        }
+
+        int affected;
+        try {
+            affected = accountRepository.updateById(id, values, departmentId);
+        } catch (DataIntegrityViolationException e) {
+            if (accountUpdateDTO.getUsername() == null || !Utils.isDuplicateKey(e)) {
+                throw e;
+            }
+            throw new RK25Exception()
+                    .rk25Error(new Rk25Error()
+                            .code("account.username.isExisted")
+                            .param(accountUpdateDTO.getUsername()));
+        }
+
+        if (affected == 0) {
+            // chỉ khi không có dòng nào được cập nhật mới cần truy vấn để biết lý do
+            if (departmentId != null && accountRepository.existsById(id)) {
+                throw new RK25Exception()
+                        .rk25Error(new Rk25Error()
+                                .code("account.departmentId.isNotExisted")
+                                .param(departmentId));
+            }
+            throw new RK25Exception()
+                    .rk25Error(new Rk25Error()
+                            .code("account.id.isNotExisted")
+                            .param(id));
+        }
+
+        usernameFilter.put(accountUpdateDTO.getUsername());
+        applicationEventPublisher.publishEvent(new AccountChangedEvent(Collections.singletonList(id)));
+    }
+
     @Override
     public Account delete(Integer id) throws NotFoundException {
         return getOne(id)
@@ -107,78 +227,339 @@ public class AccountServiceImpl implements AccountService {
                     account.id(id);
                     account.isDeleted(IS_DELETED.TRUE);
                     accountRepository.save(account);
+                    accountDTOCache.evict(id);
                     return account;
                 })
                 .orElseThrow(NotFoundException::new);
     }
 
     @Override
-    public Page<AccountDTO> getAllReturnDTO(Pageable pageable) {
+    @Transactional
+    public BulkResultDTO deleteAll(AccountCriteria criteria, List<Integer> ids) {
+        Map<String, Object> values = new HashMap<>();
+        values.put(Account_.IS_DELETED, IS_DELETED.TRUE);
+        return updateAll(criteria, ids, values);
+    }
+
+    @Override
+    @Transactional
+    public BulkResultDTO updateAll(AccountCriteria criteria, AccountBulkUpdateDTO accountBulkUpdateDTO) {
+        Map<String, Object> values = new HashMap<>();
+        if (accountBulkUpdateDTO.getRole() != null) {
+            validateRole(accountBulkUpdateDTO.getRole());
+            values.put(Account_.ROLE, accountBulkUpdateDTO.getRole());
+        }
+        if (accountBulkUpdateDTO.getDepartmentId() != null) {
+            Integer departmentId = accountBulkUpdateDTO.getDepartmentId();
+            values.put(Account_.DEPARTMENT, departmentService
+                    .getOne(departmentId)
+                    .orElseThrow(() -> new RK25Exception()
+                            .rk25Error(new Rk25Error()
+                                    .code("account.departmentId.isNotExisted")
+                                    .param(departmentId))));
+        }
+        if (values.isEmpty()) {
+            throw new RK25Exception()
+                    .rk25Error(new Rk25Error()
+                            .code("account.bulk.valueIsEmpty"));
+        }
+        return updateAll(criteria, accountBulkUpdateDTO.getIds(), values);
+    }
 
-        Page<Account> page = accountRepository
-                .findAll(pageable);
+    // SELECT id ... WHERE <criteria> FOR UPDATE + UPDATE ... WHERE id IN (...) thay vì load + save từng account
+    private BulkResultDTO updateAll(AccountCriteria criteria, List<Integer> ids, Map<String, Object> values) {
+        boolean hasIds = ids != null && !ids.isEmpty();
+        if (!hasIds && isEmpty(criteria)) {
+            // không cho phép UPDATE toàn bảng
+            throw new RK25Exception()
+                    .rk25Error(new Rk25Error()
+                            .code("account.bulk.filterIsEmpty"));
+        }
 
-        List<AccountDTO> accountDtoList = page.getContent()
-                .stream()
-                .map(account -> modelMapper.map(account, AccountDTO.class))
-                .collect(Collectors.toList());
+        Specification<Account> spec = buildWhere(criteria);
+        if (hasIds) {
+            spec = spec.and(idIn(new HashSet<>(ids)));
+        }
 
-        return new PageImpl<>(accountDtoList, pageable, page.getTotalElements());
+        // sau khi commit cache / index chỉ làm mới các account bị UPDATE
+        List<Integer> updated = accountRepository.updateAll(spec, values);
+        if (!updated.isEmpty()) {
+            applicationEventPublisher.publishEvent(new AccountChangedEvent(updated));
+        }
+
+        return new BulkResultDTO(updated.size());
+    }
+
+    private boolean isEmpty(AccountCriteria criteria) {
+        return criteria.getId() == null
+                && criteria.getUsername() == null
+                && criteria.getFirstName() == null
+                && criteria.getLastName() == null
+                && criteria.getRole() == null
+                && criteria.getSearch() == null;
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public Page<AccountDTO> getAllReturnDTO(Pageable pageable) {
+
+        return accountRepository.findAllDTO(pageable);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public List<AccountDTO> findByUsernameContains(String username) {
-        return accountRepository.findAllByUsernameContains(username)
-                .stream()
-                .map(account -> modelMapper.map(account, AccountDTO.class))
-                .collect(Collectors.toList());
+        return accountRepository.findAllDTOByUsernameContains(username);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<AccountDTO> timTheoFirstnameLastname(String firstname, String lastname) {
-        return accountRepository.timTheoFirstnameLastname(firstname, lastname)
-                .stream()
-                .map(account -> modelMapper.map(account, AccountDTO.class))
-                .collect(Collectors.toList());
+        return accountRepository.timTheoFirstnameLastnameDTO(firstname, lastname);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Optional<AccountDTO> findByUsernameEquals(String username) {
 
-        return accountRepository.findByUsername(username)
-                .map(account -> modelMapper.map(account, AccountDTO.class));
+        return accountDTOCache.getByUsername(username, () -> accountRepository.findDTOByUsername(username));
     }
 
+    // id đã có trong cache không query lại, phần còn lại: một câu IN cho mỗi lô
     @Override
+    @Transactional(readOnly = true)
+    public BatchResultDTO<AccountDTO, Integer> findAllByIds(List<Integer> ids) {
+        List<Integer> keys = batchLookup.keys(ids);
+        Map<Integer, AccountDTO> found = accountDTOCache.getAllById(keys,
+                missing -> batchLookup.query(missing, accountRepository::findAllDTOByIdIn));
+        return batchLookup.result(keys, found);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BatchResultDTO<AccountDTO, String> findAllByUsernames(List<String> usernames) {
+        List<String> keys = batchLookup.keys(usernames);
+        Map<String, AccountDTO> found = accountDTOCache.getAllByUsername(keys,
+                missing -> batchLookup.query(missing, accountRepository::findAllDTOByUsernameIn));
+        return batchLookup.result(keys, found);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public Page<AccountDTO> findAllByCriteria(
             AccountCriteria criteria,
-            Pageable pageable) {
+            Pageable pageable,
+            AccountProjection fields) {
 
         Specification<Account> spec = buildWhere(criteria);
 
-        Page<Account> page = accountRepository.findAll(spec, pageable);
+        return accountRepository.findAllDTO(spec, pageable, fields);
+    }
 
-        List<AccountDTO> accountDtoList = page.getContent()
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<AccountDTO> findSliceByCriteria(
+            AccountCriteria criteria,
+            Pageable pageable,
+            AccountProjection fields) {
+
+        Specification<Account> spec = buildWhere(criteria);
+
+        // lấy dư 1 bản ghi để biết còn trang sau hay không, không cần COUNT(*)
+        int size = pageable.getPageSize();
+        List<AccountDTO> accountDtoList = accountRepository
+                .findAllDTO(spec, pageable.getSort(), pageable.getOffset(), size + 1, fields);
+        boolean hasNext = accountDtoList.size() > size;
+        if (hasNext) {
+            accountDtoList = accountDtoList.subList(0, size);
+        }
+
+        return new SliceImpl<>(accountDtoList, pageable, hasNext);
+    }
+
+    // không readOnly: COUNT chạy ở thread khác (ngoài transaction, vào primary),
+    // để trang và tổng số cùng đọc từ primary
+    @Override
+    public Page<AccountDTO> findAllByCriteriaParallelCount(
+            AccountCriteria criteria,
+            Pageable pageable,
+            AccountProjection fields) {
+
+        Specification<Account> spec = buildWhere(criteria);
+
+        // COUNT(*) chạy trên thread (và connection) riêng, song song với câu query lấy trang
+        CompletableFuture<Long> total = accountRepository.countAsync(spec, countQueryExecutor);
+
+        List<AccountDTO> accountDtoList;
+        try {
+            accountDtoList = accountRepository
+                    .findAllDTO(spec, pageable.getSort(), pageable.getOffset(), pageable.getPageSize(), fields);
+        } catch (RuntimeException e) {
+            total.cancel(true);
+            throw e;
+        }
+
+        Page<AccountDTO> page = PageableExecutionUtils.getPage(accountDtoList, pageable, total::join);
+        // trang chưa đầy thì tổng số suy ra từ trang, không đợi COUNT: hủy câu đang chạy, trả connection
+        total.cancel(true);
+        return page;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<AccountDTO> findAllByCriteria(
+            AccountCriteria criteria,
+            String after,
+            Pageable pageable,
+            AccountProjection fields) {
+
+        Sort.Order order = pageable.getSort()
                 .stream()
-                .map(account -> modelMapper.map(account, AccountDTO.class))
-                .collect(Collectors.toList());
+                .findFirst()
+                .orElse(Sort.Order.asc(ACCOUNT.ID));
+        validateCursorSort(order.getProperty());
+
+        Specification<Account> spec = buildWhere(criteria);
+
+        if (after != null && !after.isEmpty()) {
+            Cursor cursor = Cursor.decode(after);
+            if (!order.getProperty().equals(cursor.getField())
+                    || order.getDirection() != cursor.getDirection()) {
+                throw new RK25Exception()
+                        .rk25Error(new Rk25Error()
+                                .code("account.cursor.isNotValid")
+                                .param(after));
+            }
+            spec = spec.and(new KeysetSpec<>(cursor));
+        }
+
+        Sort sort = Sort.by(order.getDirection(), order.getProperty());
+        if (!ACCOUNT.ID.equals(order.getProperty())) {
+            sort = sort.and(Sort.by(order.getDirection(), ACCOUNT.ID));
+        }
+
+        // lấy dư 1 bản ghi để biết còn trang sau hay không, không cần COUNT(*)
+        int size = pageable.getPageSize();
+        // cursor cần id và giá trị field sort của dòng cuối dù client không yêu cầu
+        List<AccountDTO> accountDtoList = accountRepository
+                .findAllDTO(spec, sort, 0, size + 1, fields.with(ACCOUNT.ID, order.getProperty()));
+        boolean hasNext = accountDtoList.size() > size;
+        if (hasNext) {
+            accountDtoList = accountDtoList.subList(0, size);
+        }
+
+        String next = null;
+        if (hasNext) {
+            AccountDTO last = accountDtoList.get(accountDtoList.size() - 1);
+            next = new Cursor(
+                    order.getProperty(),
+                    order.getDirection(),
+                    last.getId(),
+                    getSortValue(last, order.getProperty()))
+                    .encode();
+        }
+
+        return new CursorPage<AccountDTO>()
+                .content(accountDtoList)
+                .size(size)
+                .hasNext(hasNext)
+                .next(next);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void export(
+            AccountCriteria criteria,
+            String format,
+            OutputStream outputStream) throws IOException {
+
+        if (!EXPORT_FORMAT.NDJSON.equals(format) && !EXPORT_FORMAT.CSV.equals(format)) {
+            throw new RK25Exception()
+                    .rk25Error(new Rk25Error()
+                            .code("account.export.formatIsNotValid")
+                            .param(format));
+        }
+
+        Specification<Account> spec = buildWhere(criteria);
+
+        try (Stream<AccountDTO> accounts = accountRepository.streamAllDTO(spec, exportFetchSize)) {
+            if (EXPORT_FORMAT.CSV.equals(format)) {
+                writeCsv(accounts, outputStream);
+            } else {
+                writeNdjson(accounts, outputStream);
+            }
+        }
+    }
+
+    private void writeNdjson(Stream<AccountDTO> accounts, OutputStream outputStream) throws IOException {
+        boolean empty = true;
+        try (SequenceWriter writer = objectMapper
+                .writerFor(AccountDTO.class)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .withRootValueSeparator("\n")
+                .writeValues(outputStream)) {
+            for (Iterator<AccountDTO> iterator = accounts.iterator(); iterator.hasNext(); ) {
+                writer.write(iterator.next());
+                empty = false;
+            }
+        }
+        // dòng cuối cũng kết thúc bằng \n; không có dòng nào -> body rỗng
+        if (!empty) {
+            outputStream.write('\n');
+        }
+        outputStream.flush();
+    }
 
-        return new PageImpl<>(accountDtoList, pageable, page.getTotalElements());
+    private void writeCsv(Stream<AccountDTO> accounts, OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        writer.write("id,username,firstName,lastName,role,deptId,deptName\n");
+        for (Iterator<AccountDTO> iterator = accounts.iterator(); iterator.hasNext(); ) {
+            AccountDTO account = iterator.next();
+            writer.write(csv(account.getId()) + ","
+                    + csv(account.getUsername()) + ","
+                    + csv(account.getFirstName()) + ","
+                    + csv(account.getLastName()) + ","
+                    + csv(account.getRole()) + ","
+                    + csv(account.getDepartmentId()) + ","
+                    + csv(account.getDepartmentName()) + "\n");
+        }
+        writer.flush();
+    }
+
+    private String csv(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = String.valueOf(value);
+        if (text.contains(",") || text.contains("\"") || text.contains("\n") || text.contains("\r")) {
+            return "\"" + text.replace("\"", "\"\"") + "\"";
+        }
+        return text;
     }
 
     @Override
     @Transactional
     public AccountDTO create(AccountCreateDTO accountCreateDTO) {
         validateCreate(accountCreateDTO);
-        return departmentService.getOne(accountCreateDTO.getDepartmentId())
-                .map(department -> {
-                    Account account =
-                            modelMapper.map(accountCreateDTO, Account.class)
-                                    .id(null)
-                                    .department(department);
-                    return create(account);
-                }).map(account -> modelMapper.map(account, AccountDTO.class))
-                .orElse(null);
+        try {
+            return departmentService.getOne(accountCreateDTO.getDepartmentId())
+                    .map(department -> {
+                        Account account =
+                                accountMapper.toEntity(accountCreateDTO)
+                                        .department(department);
+                        return create(account);
+                    }).map(accountMapper::toDTO)
+                    .orElse(null);
+        } catch (DataIntegrityViolationException e) {
+            // bloom filter chỉ biết username của instance này, unique key mới là chốt chặn cuối
+            if (!Utils.isDuplicateKey(e)) {
+                throw e;
+            }
+            throw new RK25Exception()
+                    .rk25Error(new Rk25Error()
+                            .code("account.username.isExisted")
+                            .param(accountCreateDTO.getUsername()));
+        }
     }
 
 
@@ -220,8 +601,15 @@ public class AccountServiceImpl implements AccountService {
     }
 
     private void validateCreateUsername(String username) {
+        // bloom filter trả lời "chắc chắn chưa có" -> bỏ qua query
+        if (!usernameFilter.mightContain(username)) {
+            return;
+        }
+
         // check username có tồn tại trong hệ thông
-        findByUsername(username)
+        Optional<Account> existed = findByUsername(username);
+        usernameFilter.recordPositive(existed.isPresent());
+        existed
                 .map(account -> {
                     throw new RK25Exception()
                         .rk25Error(new Rk25Error()
@@ -238,78 +626,78 @@ public class AccountServiceImpl implements AccountService {
     }
 
     @Override
-    public List<AccountDTO> getAll(Expression expression) throws Exception {
-
-        validateExpression(expression);
-
-        AccountSpec accountSpec = new AccountSpec(expression);
-        Specification<Account> where = Specification.where(accountSpec);
-
-        return accountRepository.findAll(where)
-                .stream()
-                .map(account -> modelMapper.map(account, AccountDTO.class))
-                .collect(Collectors.toList());
-
+    @Transactional(readOnly = true)
+    public List<AccountDTO> getAll(Expression expression, AccountProjection fields) {
+        // field / operator / value được kiểm tra khi compile, lỗi -> RK25Exception (400)
+        return accountRepository.findAllDTO(accountFilterCompiler.compile(expression), fields);
     }
 
-    private void validateExpression(Expression expression) throws Exception {
-        validateField(expression.getField());
-        validateOperator(expression.getOperator());
-        validateValue(expression.getValue());
-    }
-
-    private void validateValue(Object value) throws Exception {
-        if (value == null || value.equals("")) {
-            throw new Exception("value is not null");
-        }
+    @Override
+    @Transactional(readOnly = true)
+    public List<AccountDTO> getAll(String filter, AccountProjection fields) {
+        Expression expression = FilterParser.parse(filter);
+        return accountRepository.findAllDTO(accountFilterCompiler.compile(expression), fields);
     }
 
-    private void validateOperator(String operator) throws Exception {
-        if (operator == null || operator.equals("")) {
-            throw new Exception("operator is not null");
+    private void validateCursorSort(String field) {
+        if (ACCOUNT.ID.equals(field) ||
+                ACCOUNT.USERNAME.equals(field) ||
+                ACCOUNT.FIRST_NAME.equals(field) ||
+                ACCOUNT.LAST_NAME.equals(field) ||
+                ACCOUNT.ROLE.equals(field)) {
+            return;
         }
+        throw new RK25Exception()
+                .rk25Error(new Rk25Error()
+                        .code("account.cursor.sortIsNotValid")
+                        .param(field));
     }
 
-    private void validateField(String field) throws Exception {
-        if (field == null || field.equals("")) {
-            throw new Exception("field is not null");
+    private String getSortValue(AccountDTO account, String field) {
+        switch (field) {
+            case ACCOUNT.USERNAME:
+                return account.getUsername();
+            case ACCOUNT.FIRST_NAME:
+                return account.getFirstName();
+            case ACCOUNT.LAST_NAME:
+                return account.getLastName();
+            case ACCOUNT.ROLE:
+                return account.getRole();
+            default:
+                return String.valueOf(account.getId());
         }
     }
 
     private Specification<Account> buildWhere(AccountCriteria criteria) {
-        Specification<Account> spec = Specification.where(null);
-
-        if (criteria.getId() != null) {
-            spec = spec.and(queryService.buildIntegerFilter(ACCOUNT.ID, criteria.getId()));
-        }
-        if (criteria.getUsername() != null) {
-            spec = spec.and(queryService.buildStringFilter(ACCOUNT.USERNAME, criteria.getUsername()));
-        }
-        if (criteria.getFirstName() != null) {
-            spec = spec.and(queryService.buildStringFilter(ACCOUNT.FIRST_NAME, criteria.getFirstName()));
-        }
-        if (criteria.getLastName() != null) {
-            spec = spec.and(queryService.buildStringFilter(ACCOUNT.LAST_NAME, criteria.getLastName()));
-        }
-        if (criteria.getRole() != null) {
-            spec = spec.and(queryService.buildStringFilter(ACCOUNT.ROLE, criteria.getRole()));
-        }
         if (criteria.getSearch() != null) {
-            Specification<Account> orSpec = Specification.where(null);
-            orSpec = orSpec
-                    .or(queryService.buildStringFilter(ACCOUNT.USERNAME, criteria.getSearch()))
-                    .or(queryService.buildStringFilter(ACCOUNT.FIRST_NAME, criteria.getSearch()))
-                    .or(queryService.buildStringFilter(ACCOUNT.LAST_NAME, criteria.getSearch()))
-                    .or(queryService.buildStringFilter(ACCOUNT.ROLE, criteria.getSearch()));
-
-            if (Utils.checkStringAsDigit(criteria.getSearch().getContains())) {
-                Integer searchValue = Integer.valueOf(criteria.getSearch().getContains());
-                IntegerFilter integerFilter = new IntegerFilter();
-                integerFilter.setEquals(searchValue);
-                orSpec.or(queryService.buildIntegerFilter(ACCOUNT.ID, integerFilter));
+            Optional<Set<Integer>> candidateIds = searchByIndex(criteria.getSearch());
+            if (candidateIds.isPresent()) {
+                return accountCriteriaCompiler
+                        .compile(criteria, false)
+                        .and(idIn(candidateIds.get()));
             }
-            spec = spec.and(orSpec);
         }
-        return spec;
+        return accountCriteriaCompiler.compile(criteria);
+    }
+
+    private Optional<Set<Integer>> searchByIndex(StringFilter search) {
+        if (search.getEquals() != null || search.getNotEquals() != null) {
+            return Optional.empty();
+        }
+        return accountSearchIndex.search(search.getContains())
+                .map(ids -> {
+                    if (AccountCriteriaCompiler.searchById(search)) {
+                        Set<Integer> withId = new HashSet<>(ids);
+                        withId.add(Integer.valueOf(search.getContains()));
+                        return withId;
+                    }
+                    return ids;
+                });
+    }
+
+    private Specification<Account> idIn(Set<Integer> ids) {
+        return (root, query, criteriaBuilder) -> ids.isEmpty()
+                ? criteriaBuilder.disjunction()
+                : root.get(ACCOUNT.ID).in(ids);
     }
 }
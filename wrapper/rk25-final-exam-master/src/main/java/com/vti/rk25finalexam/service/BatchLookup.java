@@ -0,0 +1,75 @@
+package com.vti.rk25finalexam.service;
+
+import com.vti.rk25finalexam.entity.dto.BatchResultDTO;
+import com.vti.rk25finalexam.exception.RK25Exception;
+import com.vti.rk25finalexam.exception.Rk25Error;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Phần dùng chung của các endpoint lookup theo lô (/batch?ids=...):
+ * kiểm tra danh sách key, chia lô cho câu IN, ráp kết quả theo thứ tự key gửi lên.
+ */
+@Component
+public class BatchLookup {
+
+    private final Integer maxSize;
+
+    private final Integer chunkSize;
+
+    public BatchLookup(
+            @Value("${app.batch.max-size:500}") Integer maxSize,
+            @Value("${app.batch.chunk-size:100}") Integer chunkSize) {
+        this.maxSize = maxSize;
+        this.chunkSize = chunkSize;
+    }
+
+    // bỏ null và key trùng, giữ thứ tự lần xuất hiện đầu tiên
+    public <K> List<K> keys(List<K> keys) {
+        if (keys == null || keys.stream().allMatch(Objects::isNull)) {
+            throw new RK25Exception()
+                    .rk25Error(new Rk25Error()
+                            .code("batch.keysIsEmpty"));
+        }
+        List<K> distinct = new ArrayList<>(new LinkedHashSet<>(keys));
+        distinct.remove(null);
+        if (distinct.size() > maxSize) {
+            throw new RK25Exception()
+                    .rk25Error(new Rk25Error()
+                            .code("batch.keysIsTooLarge")
+                            .param(maxSize));
+        }
+        return distinct;
+    }
+
+    // mỗi lô một câu ... WHERE key IN (...), tránh câu IN quá dài
+    public <K, T> List<T> query(List<K> keys, Function<List<K>, List<T>> query) {
+        List<T> result = new ArrayList<>(keys.size());
+        for (int from = 0; from < keys.size(); from += chunkSize) {
+            result.addAll(query.apply(keys.subList(from, Math.min(from + chunkSize, keys.size()))));
+        }
+        return result;
+    }
+
+    public <K, T> BatchResultDTO<T, K> result(List<K> keys, Map<K, T> found) {
+        List<T> content = new ArrayList<>(found.size());
+        List<K> missing = new ArrayList<>();
+        for (K key : keys) {
+            T value = found.get(key);
+            if (value != null) {
+                content.add(value);
+            } else {
+                missing.add(key);
+            }
+        }
+        return new BatchResultDTO<T, K>()
+                .content(content)
+                .missing(missing);
+    }
+}
@@ -0,0 +1,141 @@
+package com.vti.rk25finalexam.service;
+
+import com.vti.rk25finalexam.entity.Department;
+import com.vti.rk25finalexam.entity.Department_;
+import com.vti.rk25finalexam.repository.DepartmentRepository;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bảng department nạp toàn bộ vào bộ nhớ (vài trăm dòng, ít thay đổi).
+ * <p>
+ * Mỗi lần ghi department chỉ tăng version; lần đọc kế tiếp thấy snapshot cũ
+ * hơn version hiện tại sẽ nạp lại cả bảng. Định kỳ cũng tăng version để lấy
+ * thay đổi từ instance khác. Luôn trả bản copy nên caller có thể sửa thoải mái.
+ */
+@Slf4j
+@Component
+public class DepartmentCache {
+
+    private final DepartmentRepository deptRepo;
+
+    private final AtomicLong version = new AtomicLong();
+
+    private volatile Snapshot snapshot;
+
+    public DepartmentCache(DepartmentRepository deptRepo) {
+        this.deptRepo = deptRepo;
+    }
+
+    public List<Department> getAll() {
+        return current().departments.values()
+                .stream()
+                .map(this::copy)
+                .collect(Collectors.toList());
+    }
+
+    public Optional<Department> getOne(Integer id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        Department department = current().departments.get(id);
+        if (department != null) {
+            return Optional.of(copy(department));
+        }
+        // department mới từ instance khác chưa có trong snapshot: đọc DB, không cache kết quả rỗng
+        Optional<Department> loaded = deptRepo.findById(id);
+        loaded.ifPresent(found -> invalidate());
+        return loaded;
+    }
+
+    // id không có trong snapshot được đọc bằng một lần gọi loader, giống getOne không cache kết quả rỗng
+    public Map<Integer, Department> getAll(List<Integer> ids, Function<List<Integer>, List<Department>> loader) {
+        Map<Integer, Department> departments = current().departments;
+        Map<Integer, Department> result = new HashMap<>();
+        List<Integer> missing = new ArrayList<>();
+        for (Integer id : ids) {
+            Department department = departments.get(id);
+            if (department != null) {
+                result.put(id, copy(department));
+            } else {
+                missing.add(id);
+            }
+        }
+        if (!missing.isEmpty()) {
+            List<Department> loaded = loader.apply(missing);
+            loaded.forEach(department -> result.put(department.getId(), copy(department)));
+            if (!loaded.isEmpty()) {
+                invalidate();
+            }
+        }
+        return result;
+    }
+
+    public void invalidate() {
+        version.incrementAndGet();
+    }
+
+    @Scheduled(
+            fixedDelayString = "${app.cache.department.refresh-interval:PT5M}",
+            initialDelayString = "${app.cache.department.refresh-interval:PT5M}")
+    public void scheduledRefresh() {
+        invalidate();
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (current == null || current.version != version.get()) {
+            current = refresh();
+        }
+        return current;
+    }
+
+    private synchronized Snapshot refresh() {
+        long loadingVersion = version.get();
+        if (snapshot != null && snapshot.version == loadingVersion) {
+            return snapshot;
+        }
+        Map<Integer, Department> departments = new LinkedHashMap<>();
+        for (Department department : deptRepo.findAll(Sort.by(Department_.ID))) {
+            departments.put(department.getId(), copy(department));
+        }
+        // version đổi trong lúc nạp thì lần đọc sau sẽ nạp lại
+        snapshot = new Snapshot(loadingVersion, Collections.unmodifiableMap(departments));
+        log.debug("Department cache loaded {} departments (version {})", departments.size(), loadingVersion);
+        return snapshot;
+    }
+
+    // không copy accountList: tránh lazy load ngoài session và vòng Account <-> Department khi serialize
+    private Department copy(Department department) {
+        return new Department()
+                .id(department.getId())
+                .name(department.getName())
+                .totalMember(department.getTotalMember())
+                .type(department.getType())
+                .createdDate(department.getCreatedDate());
+    }
+
+    private static class Snapshot {
+
+        private final long version;
+
+        private final Map<Integer, Department> departments;
+
+        private Snapshot(long version, Map<Integer, Department> departments) {
+            this.version = version;
+            this.departments = departments;
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.vti.rk25finalexam.service;
 
 import com.vti.rk25finalexam.entity.Account;
 import com.vti.rk25finalexam.entity.Department;
+import com.vti.rk25finalexam.entity.dto.BatchResultDTO;
 import com.vti.rk25finalexam.entity.dto.DepartmentDTO;
 import java.util.List;
 import java.util.Optional;
@@ -19,4 +20,6 @@ public interface DepartmentService {
     Department delete(Integer id) throws NotFoundException;
 
     Optional<DepartmentDTO> getOneReturnDTO(Integer id);
+
+    BatchResultDTO<DepartmentDTO, Integer> findAllByIds(List<Integer> ids);
 }
@@ -1,36 +1,48 @@
 package com.vti.rk25finalexam.service;
 
 import com.vti.rk25finalexam.entity.Department;
+import com.vti.rk25finalexam.entity.dto.BatchResultDTO;
 import com.vti.rk25finalexam.entity.dto.DepartmentDTO;
+import com.vti.rk25finalexam.mapper.DepartmentMapper;
 import com.vti.rk25finalexam.repository.DepartmentRepository;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import org.modelmapper.ModelMapper;
 import org.springframework.data.crossstore.ChangeSetPersister.NotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class DepartmentServiceImpl implements DepartmentService {
     
     private final DepartmentRepository deptRepo;
-    private final ModelMapper modelMapper;
+    private final DepartmentMapper departmentMapper;
+    private final DepartmentCache departmentCache;
+    private final BatchLookup batchLookup;
 
     public DepartmentServiceImpl(
         DepartmentRepository deptRepo,
-        ModelMapper modelMapper
+        DepartmentMapper departmentMapper,
+        DepartmentCache departmentCache,
+        BatchLookup batchLookup
     ) {
         this.deptRepo = deptRepo;
-        this.modelMapper = modelMapper;
+        this.departmentMapper = departmentMapper;
+        this.departmentCache = departmentCache;
+        this.batchLookup = batchLookup;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Department> getAll() {
-        return deptRepo.findAll();
+        return departmentCache.getAll();
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Optional<Department> getOne(Integer id) {
-        return deptRepo.findById(id);
+        return departmentCache.getOne(id);
     }
 
     @Override
@@ -44,8 +56,19 @@ public class DepartmentServiceImpl implements DepartmentService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Optional<DepartmentDTO> getOneReturnDTO(Integer id) {
-        return getOne(id).map(department -> modelMapper.map(department, DepartmentDTO.class));
+        return getOne(id).map(departmentMapper::toDTO);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BatchResultDTO<DepartmentDTO, Integer> findAllByIds(List<Integer> ids) {
+        List<Integer> keys = batchLookup.keys(ids);
+        Map<Integer, DepartmentDTO> found = new HashMap<>();
+        departmentCache.getAll(keys, missing -> batchLookup.query(missing, deptRepo::findAllById))
+            .forEach((id, department) -> found.put(id, departmentMapper.toDTO(department)));
+        return batchLookup.result(keys, found);
     }
 
     @Override
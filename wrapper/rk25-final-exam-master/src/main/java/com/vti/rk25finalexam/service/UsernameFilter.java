@@ -0,0 +1,133 @@
+package com.vti.rk25finalexam.service;
+
+import com.vti.rk25finalexam.utils.ScalableBloomFilter;
+import com.vti.rk25finalexam.utils.Utils;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bloom filter các username đã tồn tại (kể cả account đã xóa mềm, vì unique constraint
+ * áp dụng cho cả bảng). Trả lời "chắc chắn chưa có" mà không cần query DB;
+ * chỉ khi filter trả về "có thể có" mới kiểm tra lại DB. Unique constraint vẫn là chốt chặn cuối.
+ */
+@Slf4j
+@Component
+public class UsernameFilter {
+
+    private static final String SELECT_USERNAMES = "select username from account";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final ScalableBloomFilter filter;
+
+    // chưa nạp xong thì mọi username đều coi là "có thể có" -> kiểm tra DB như cũ
+    private volatile boolean ready = false;
+
+    private final Counter negatives;
+
+    private final Counter truePositives;
+
+    private final Counter falsePositives;
+
+    @Value("${app.username-filter.enabled:true}")
+    private Boolean enabled;
+
+    @Value("${app.username-filter.fetch-size:1000}")
+    private Integer fetchSize;
+
+    public UsernameFilter(
+            JdbcTemplate jdbcTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${app.username-filter.expected-insertions:100000}") Long expectedInsertions,
+            @Value("${app.username-filter.false-positive-rate:0.01}") Double falsePositiveRate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.filter = new ScalableBloomFilter(expectedInsertions, falsePositiveRate);
+
+        Gauge.builder("account.username.filter.memory", filter, ScalableBloomFilter::memoryBytes)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("account.username.filter.size", filter, ScalableBloomFilter::size)
+                .register(meterRegistry);
+        Gauge.builder("account.username.filter.stages", filter, ScalableBloomFilter::stageCount)
+                .register(meterRegistry);
+        Gauge.builder("account.username.filter.false.positive.rate.expected", filter,
+                        ScalableBloomFilter::expectedFalsePositiveRate)
+                .register(meterRegistry);
+        Gauge.builder("account.username.filter.false.positive.rate.observed", this,
+                        UsernameFilter::observedFalsePositiveRate)
+                .register(meterRegistry);
+        this.negatives = checks(meterRegistry, "negative");
+        this.truePositives = checks(meterRegistry, "true_positive");
+        this.falsePositives = checks(meterRegistry, "false_positive");
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!enabled) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        jdbcTemplate.query(
+                connection -> {
+                    PreparedStatement statement = connection.prepareStatement(
+                            SELECT_USERNAMES, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                    statement.setFetchSize(fetchSize);
+                    return statement;
+                },
+                (ResultSet resultSet) -> put(resultSet.getString(1)));
+        ready = true;
+        log.info("Username filter loaded {} usernames ({} bytes) in {} ms",
+                filter.size(), filter.memoryBytes(), System.currentTimeMillis() - start);
+    }
+
+    public boolean mightContain(String username) {
+        if (!ready || username == null) {
+            return true;
+        }
+        boolean mightContain = filter.mightContain(normalize(username));
+        if (!mightContain) {
+            negatives.increment();
+        }
+        return mightContain;
+    }
+
+    public void put(String username) {
+        if (username != null) {
+            filter.put(normalize(username));
+        }
+    }
+
+    // gọi sau khi đã kiểm tra DB cho một kết quả "có thể có"
+    public void recordPositive(boolean existed) {
+        if (existed) {
+            truePositives.increment();
+        } else {
+            falsePositives.increment();
+        }
+    }
+
+    private double observedFalsePositiveRate() {
+        double misses = negatives.count() + falsePositives.count();
+        return misses == 0 ? 0 : falsePositives.count() / misses;
+    }
+
+    // chuẩn hóa như collation của DB để không có false negative
+    private String normalize(String username) {
+        return Utils.normalizeUsername(username);
+    }
+
+    private static Counter checks(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("account.username.filter.checks")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
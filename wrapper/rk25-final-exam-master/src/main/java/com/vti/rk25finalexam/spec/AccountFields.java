@@ -0,0 +1,90 @@
+package com.vti.rk25finalexam.spec;
+
+import com.vti.rk25finalexam.common.Constants.ACCOUNT;
+import com.vti.rk25finalexam.common.Constants.ACCOUNT_FIELDS;
+import com.vti.rk25finalexam.exception.RK25Exception;
+import com.vti.rk25finalexam.exception.Rk25Error;
+import com.vti.rk25finalexam.repository.AccountProjection;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Tập field của AccountDTO client yêu cầu qua ?fields=id,username,deptName (tên field trong JSON).
+ * Không có tham số fields = ALL: câu SELECT_DTO đầy đủ, JSON đầy đủ như trước.
+ */
+public final class AccountFields implements AccountProjection {
+
+    // thứ tự cố định: cùng tập field -> cùng câu SQL dù client liệt kê theo thứ tự nào
+    private static final List<String> NAMES = Collections.unmodifiableList(Arrays.asList(
+            ACCOUNT.ID,
+            ACCOUNT.USERNAME,
+            ACCOUNT.FIRST_NAME,
+            ACCOUNT.LAST_NAME,
+            ACCOUNT.ROLE,
+            ACCOUNT_FIELDS.DEPT_ID,
+            ACCOUNT_FIELDS.DEPT_NAME));
+
+    public static final AccountFields ALL = new AccountFields(new LinkedHashSet<>(NAMES), true);
+
+    private final Set<String> names;
+
+    private final boolean all;
+
+    private AccountFields(Set<String> names, boolean all) {
+        this.names = Collections.unmodifiableSet(names);
+        this.all = all;
+    }
+
+    public static AccountFields parse(String fields) {
+        if (fields == null || fields.trim().isEmpty()) {
+            return ALL;
+        }
+        Set<String> requested = new LinkedHashSet<>();
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (!NAMES.contains(name)) {
+                throw new RK25Exception()
+                        .rk25Error(new Rk25Error()
+                                .code("account.fields.isNotValid")
+                                .param(name));
+            }
+            requested.add(name);
+        }
+        if (requested.isEmpty()) {
+            throw new RK25Exception()
+                    .rk25Error(new Rk25Error()
+                            .code("account.fields.isNotValid")
+                            .param(fields));
+        }
+        return of(requested);
+    }
+
+    @Override
+    public AccountFields with(String... fields) {
+        if (all) {
+            return this;
+        }
+        Set<String> extended = new LinkedHashSet<>(names);
+        extended.addAll(Arrays.asList(fields));
+        return of(extended);
+    }
+
+    @Override
+    public boolean isAll() {
+        return all;
+    }
+
+    @Override
+    public Set<String> getNames() {
+        return names;
+    }
+
+    private static AccountFields of(Set<String> fields) {
+        Set<String> ordered = new LinkedHashSet<>();
+        NAMES.stream().filter(fields::contains).forEach(ordered::add);
+        return new AccountFields(ordered, ordered.size() == NAMES.size());
+    }
+}
@@ -0,0 +1,51 @@
+package com.vti.rk25finalexam.spec;
+
+import com.vti.rk25finalexam.exception.RK25Exception;
+import com.vti.rk25finalexam.exception.Rk25Error;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Sort;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Cursor {
+
+    private static final String SEPARATOR = "|";
+
+    private String field;
+
+    private Sort.Direction direction;
+
+    private Integer id;
+
+    private String value;
+
+    public String encode() {
+        String raw = field + SEPARATOR + direction + SEPARATOR + id + SEPARATOR + value;
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static Cursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            // value là phần cuối cùng, có thể chứa ký tự "|"
+            String[] parts = raw.split("\\" + SEPARATOR, 4);
+            return new Cursor(
+                    parts[0],
+                    Sort.Direction.valueOf(parts[1]),
+                    Integer.valueOf(parts[2]),
+                    parts[3]);
+        } catch (RuntimeException e) {
+            throw new RK25Exception()
+                    .rk25Error(new Rk25Error()
+                            .code("account.cursor.isNotValid")
+                            .param(token));
+        }
+    }
+}
@@ -1,16 +1,46 @@
 package com.vti.rk25finalexam.spec;
 
-import lombok.AllArgsConstructor;
+import java.util.List;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Data
 @NoArgsConstructor
-@AllArgsConstructor
 public class Expression {
     private String field;
 
     private String operator;
 
     private Object value;
+
+    private List<Expression> and;
+
+    private List<Expression> or;
+
+    private Expression not;
+
+    public Expression(String field, String operator, Object value) {
+        this.field = field;
+        this.operator = operator;
+        this.value = value;
+    }
+
+    public Expression and(List<Expression> and) {
+        this.and = and;
+        return this;
+    }
+
+    public Expression or(List<Expression> or) {
+        this.or = or;
+        return this;
+    }
+
+    public Expression not(Expression not) {
+        this.not = not;
+        return this;
+    }
+
+    public boolean isLeaf() {
+        return and == null && or == null && not == null;
+    }
 }
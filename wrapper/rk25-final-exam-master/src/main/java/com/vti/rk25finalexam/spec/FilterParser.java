@@ -0,0 +1,150 @@
+package com.vti.rk25finalexam.spec;
+
+import com.vti.rk25finalexam.common.Constants.FILTER;
+import com.vti.rk25finalexam.common.Constants.OPERATOR;
+import com.vti.rk25finalexam.exception.RK25Exception;
+import com.vti.rk25finalexam.exception.Rk25Error;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Cú pháp:
+ * <pre>
+ * expr  := and (OR and)*
+ * and   := unary (AND unary)*
+ * unary := NOT unary | '(' expr ')' | field:operator:value
+ * </pre>
+ * Với in / notIn / between, value là danh sách ngăn cách bởi dấu phẩy.
+ * Giá trị có khoảng trắng hoặc dấu ngoặc đặt trong dấu nháy kép.
+ * Vd: {@code role:in:ADMIN,MANAGER AND NOT (firstName:contains:"Van A" OR id:between:1,10)}
+ */
+public class FilterParser {
+
+    private final List<String> tokens;
+
+    private int position = 0;
+
+    private FilterParser(String filter) {
+        this.tokens = tokenize(filter);
+    }
+
+    public static Expression parse(String filter) {
+        FilterParser parser = new FilterParser(filter);
+        if (parser.tokens.isEmpty()) {
+            throw invalid(filter);
+        }
+        Expression expression = parser.parseOr();
+        if (parser.position != parser.tokens.size()) {
+            throw invalid(filter);
+        }
+        return expression;
+    }
+
+    private Expression parseOr() {
+        List<Expression> children = new ArrayList<>();
+        children.add(parseAnd());
+        while (accept(FILTER.OR)) {
+            children.add(parseAnd());
+        }
+        return children.size() == 1 ? children.get(0) : new Expression().or(children);
+    }
+
+    private Expression parseAnd() {
+        List<Expression> children = new ArrayList<>();
+        children.add(parseUnary());
+        while (accept(FILTER.AND)) {
+            children.add(parseUnary());
+        }
+        return children.size() == 1 ? children.get(0) : new Expression().and(children);
+    }
+
+    private Expression parseUnary() {
+        if (accept(FILTER.NOT)) {
+            return new Expression().not(parseUnary());
+        }
+        if (accept("(")) {
+            Expression expression = parseOr();
+            if (!accept(")")) {
+                throw invalid(String.join(" ", tokens));
+            }
+            return expression;
+        }
+        return parseTerm(next());
+    }
+
+    private Expression parseTerm(String term) {
+        String[] parts = term.split(":", 3);
+        if (parts.length != 3 || parts[0].isEmpty() || parts[1].isEmpty()) {
+            throw invalid(term);
+        }
+        String operator = parts[1];
+        String value = unquote(parts[2]);
+        if (OPERATOR.IN.equals(operator)
+                || OPERATOR.NOT_IN.equals(operator)
+                || OPERATOR.BETWEEN.equals(operator)) {
+            return new Expression(parts[0], operator, value.isEmpty()
+                    ? new ArrayList<String>()
+                    : Arrays.asList(value.split(",")));
+        }
+        return new Expression(parts[0], operator, value);
+    }
+
+    private boolean accept(String token) {
+        if (position < tokens.size() && tokens.get(position).equalsIgnoreCase(token)) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    private String next() {
+        if (position >= tokens.size()) {
+            throw invalid(String.join(" ", tokens));
+        }
+        return tokens.get(position++);
+    }
+
+    private static List<String> tokenize(String filter) {
+        List<String> tokens = new ArrayList<>();
+        if (filter == null) {
+            return tokens;
+        }
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (char c : filter.toCharArray()) {
+            if (c == '"') {
+                quoted = !quoted;
+                current.append(c);
+            } else if (!quoted && (Character.isWhitespace(c) || c == '(' || c == ')')) {
+                if (current.length() > 0) {
+                    tokens.add(current.toString());
+                    current.setLength(0);
+                }
+                if (c == '(' || c == ')') {
+                    tokens.add(String.valueOf(c));
+                }
+            } else {
+                current.append(c);
+            }
+        }
+        if (quoted) {
+            throw invalid(filter);
+        }
+        if (current.length() > 0) {
+            tokens.add(current.toString());
+        }
+        return tokens;
+    }
+
+    private static String unquote(String value) {
+        return value.replace("\"", "");
+    }
+
+    private static RK25Exception invalid(String filter) {
+        return new RK25Exception()
+                .rk25Error(new Rk25Error()
+                        .code("filter.isNotValid")
+                        .param(filter));
+    }
+}
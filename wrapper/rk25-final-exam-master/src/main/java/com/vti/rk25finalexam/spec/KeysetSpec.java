@@ -0,0 +1,46 @@
+package com.vti.rk25finalexam.spec;
+
+import com.vti.rk25finalexam.common.Constants.ACCOUNT;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+@Data
+@AllArgsConstructor
+public class KeysetSpec<T> implements Specification<T> {
+
+    private Cursor cursor;
+
+    @Override
+    public Predicate toPredicate(Root<T> root, CriteriaQuery<?> query,
+        CriteriaBuilder criteriaBuilder) {
+        boolean asc = cursor.getDirection() == Sort.Direction.ASC;
+        Path<Integer> id = root.get(ACCOUNT.ID);
+
+        if (ACCOUNT.ID.equals(cursor.getField())) {
+            return asc
+                ? criteriaBuilder.greaterThan(id, cursor.getId())
+                : criteriaBuilder.lessThan(id, cursor.getId());
+        }
+
+        // (sortKey, id) > (?, ?): Criteria API không hỗ trợ so sánh row value
+        // nên viết lại thành sortKey > ? OR (sortKey = ? AND id > ?)
+        Path<String> key = root.get(cursor.getField());
+        String value = cursor.getValue();
+        return criteriaBuilder.or(
+            asc
+                ? criteriaBuilder.greaterThan(key, value)
+                : criteriaBuilder.lessThan(key, value),
+            criteriaBuilder.and(
+                criteriaBuilder.equal(key, value),
+                asc
+                    ? criteriaBuilder.greaterThan(id, cursor.getId())
+                    : criteriaBuilder.lessThan(id, cursor.getId())));
+    }
+}
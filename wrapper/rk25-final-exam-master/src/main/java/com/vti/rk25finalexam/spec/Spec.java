@@ -1,10 +1,16 @@
 package com.vti.rk25finalexam.spec;
 
 import com.vti.rk25finalexam.common.Constants.OPERATOR;
+import com.vti.rk25finalexam.utils.Utils;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.Date;
+import java.util.List;
 import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Path;
 import javax.persistence.criteria.Predicate;
 import javax.persistence.criteria.Root;
 import lombok.AllArgsConstructor;
@@ -31,83 +37,129 @@ public class Spec<T> implements Specification<T> {
         switch (operator) {
             case OPERATOR.EQUALS:
                 if (value instanceof Integer) {
-                    predicate = criteriaBuilder.equal(root.get(field), Integer.valueOf(String.valueOf(value)));
+                    predicate = criteriaBuilder.equal(path(root, field), Integer.valueOf(String.valueOf(value)));
                 }
                     if (value instanceof String) {
-                    predicate = criteriaBuilder.equal(root.get(field), String.valueOf(value));
+                    predicate = criteriaBuilder.equal(path(root, field), String.valueOf(value));
                 }
                 if (value instanceof Date) {
-                    predicate = criteriaBuilder.equal(root.get(field), (Date) value);
+                    predicate = criteriaBuilder.equal(path(root, field), (Date) value);
                 }
                 if (value instanceof LocalDate) {
-                    predicate = criteriaBuilder.equal(root.get(field), (LocalDate) value);
+                    predicate = criteriaBuilder.equal(path(root, field), (LocalDate) value);
                 }
                 break;
             case OPERATOR.NOT_EQUALS:
                 if (value instanceof Integer) {
-                    predicate = criteriaBuilder.notEqual(root.get(field), Integer.valueOf(String.valueOf(value)));
+                    predicate = criteriaBuilder.notEqual(path(root, field), Integer.valueOf(String.valueOf(value)));
                 }
                 if (value instanceof String) {
-                    predicate = criteriaBuilder.notEqual(root.get(field), String.valueOf(value));
+                    predicate = criteriaBuilder.notEqual(path(root, field), String.valueOf(value));
                 }
                 if (value instanceof Date) {
-                    predicate = criteriaBuilder.notEqual(root.get(field), (Date) value);
+                    predicate = criteriaBuilder.notEqual(path(root, field), (Date) value);
                 }
                 if (value instanceof LocalDate) {
-                    predicate = criteriaBuilder.notEqual(root.get(field), (LocalDate) value);
+                    predicate = criteriaBuilder.notEqual(path(root, field), (LocalDate) value);
                 }
                 break;
             case OPERATOR.CONTAINS:
-                predicate = criteriaBuilder.like(root.get(field), "%" + value + "%");
+                predicate = criteriaBuilder.like(path(root, field), Utils.containsPattern(String.valueOf(value)), Utils.LIKE_ESCAPE);
                 break;
             case OPERATOR.NOT_CONTAINS:
-                predicate = criteriaBuilder.notLike(root.get(field), "%" + value + "%");
+                predicate = criteriaBuilder.notLike(path(root, field), Utils.containsPattern(String.valueOf(value)), Utils.LIKE_ESCAPE);
                 break;
             case OPERATOR.GREATER_THAN:
                 if (value instanceof Integer) {
-                    predicate = criteriaBuilder.greaterThan(root.get(field), Integer.valueOf(String.valueOf(value)));
+                    predicate = criteriaBuilder.greaterThan(path(root, field), Integer.valueOf(String.valueOf(value)));
                 }
                 if (value instanceof Date) {
-                    predicate = criteriaBuilder.greaterThan(root.get(field), (Date) value);
+                    predicate = criteriaBuilder.greaterThan(path(root, field), (Date) value);
                 }
                 if (value instanceof LocalDate) {
-                    predicate = criteriaBuilder.greaterThan(root.get(field), (LocalDate) value);
+                    predicate = criteriaBuilder.greaterThan(path(root, field), (LocalDate) value);
                 }
                 break;
             case OPERATOR.GREATER_THAN_OR_EQUALS:
                 if (value instanceof Integer) {
-                    predicate = criteriaBuilder.greaterThanOrEqualTo(root.get(field), Integer.valueOf(String.valueOf(value)));
+                    predicate = criteriaBuilder.greaterThanOrEqualTo(path(root, field), Integer.valueOf(String.valueOf(value)));
                 }
                 if (value instanceof Date) {
-                    predicate = criteriaBuilder.greaterThanOrEqualTo(root.get(field), (Date) value);
+                    predicate = criteriaBuilder.greaterThanOrEqualTo(path(root, field), (Date) value);
                 }
                 if (value instanceof LocalDate) {
-                    predicate = criteriaBuilder.greaterThanOrEqualTo(root.get(field), (LocalDate) value);
+                    predicate = criteriaBuilder.greaterThanOrEqualTo(path(root, field), (LocalDate) value);
                 }
                 break;
             case OPERATOR.LESS_THAN:
                 if (value instanceof Integer) {
-                    predicate = criteriaBuilder.lessThan(root.get(field), Integer.valueOf(String.valueOf(value)));
+                    predicate = criteriaBuilder.lessThan(path(root, field), Integer.valueOf(String.valueOf(value)));
                 }
                 if (value instanceof Date) {
-                    predicate = criteriaBuilder.lessThan(root.get(field), (Date) value);
+                    predicate = criteriaBuilder.lessThan(path(root, field), (Date) value);
                 }
                 if (value instanceof LocalDate) {
-                    predicate = criteriaBuilder.lessThan(root.get(field), (LocalDate) value);
+                    predicate = criteriaBuilder.lessThan(path(root, field), (LocalDate) value);
                 }
                 break;
             case OPERATOR.LESS_THAN_OR_EQUALS:
                 if (value instanceof Integer) {
-                    predicate = criteriaBuilder.lessThanOrEqualTo(root.get(field), Integer.valueOf(String.valueOf(value)));
+                    predicate = criteriaBuilder.lessThanOrEqualTo(path(root, field), Integer.valueOf(String.valueOf(value)));
                 }
                 if (value instanceof Date) {
-                    predicate = criteriaBuilder.lessThanOrEqualTo(root.get(field), (Date) value);
+                    predicate = criteriaBuilder.lessThanOrEqualTo(path(root, field), (Date) value);
                 }
                 if (value instanceof LocalDate) {
-                    predicate = criteriaBuilder.lessThanOrEqualTo(root.get(field), (LocalDate) value);
+                    predicate = criteriaBuilder.lessThanOrEqualTo(path(root, field), (LocalDate) value);
+                }
+                break;
+            case OPERATOR.IN:
+                predicate = ((Collection<?>) value).isEmpty()
+                    ? criteriaBuilder.disjunction()
+                    : path(root, field).in((Collection<?>) value);
+                break;
+            case OPERATOR.NOT_IN:
+                predicate = ((Collection<?>) value).isEmpty()
+                    ? criteriaBuilder.conjunction()
+                    : criteriaBuilder.not(path(root, field).in((Collection<?>) value));
+                break;
+            case OPERATOR.BETWEEN:
+                List<?> range = (List<?>) value;
+                if (range.get(0) instanceof Integer) {
+                    predicate = criteriaBuilder.between(path(root, field), (Integer) range.get(0), (Integer) range.get(1));
+                }
+                if (range.get(0) instanceof Date) {
+                    predicate = criteriaBuilder.between(path(root, field), (Date) range.get(0), (Date) range.get(1));
+                }
+                if (range.get(0) instanceof LocalDate) {
+                    predicate = criteriaBuilder.between(path(root, field), (LocalDate) range.get(0), (LocalDate) range.get(1));
                 }
                 break;
         }
         return predicate;
     }
+
+    // hỗ trợ field lồng nhau, vd: "department.id"
+    // đi qua LEFT JOIN (dùng lại join có sẵn của query): đường dẫn ngầm định là INNER JOIN,
+    // sẽ loại luôn account không có department
+    private <Y> Path<Y> path(Root<T> root, String field) {
+        int dot = field.indexOf('.');
+        if (dot < 0) {
+            return root.get(field);
+        }
+        Path<?> path = leftJoin(root, field.substring(0, dot));
+        for (String part : field.substring(dot + 1).split("\\.")) {
+            path = path.get(part);
+        }
+        return (Path<Y>) path;
+    }
+
+    private Join<T, ?> leftJoin(Root<T> root, String attribute) {
+        for (Join<T, ?> join : root.getJoins()) {
+            if (join.getJoinType() == JoinType.LEFT && attribute.equals(join.getAttribute().getName())) {
+                return join;
+            }
+        }
+        return root.join(attribute, JoinType.LEFT);
+    }
 }
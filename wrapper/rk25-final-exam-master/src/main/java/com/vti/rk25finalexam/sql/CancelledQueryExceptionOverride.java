@@ -0,0 +1,25 @@
+package com.vti.rk25finalexam.sql;
+
+import com.zaxxer.hikari.SQLExceptionOverride;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Câu lệnh bị hủy (Statement.cancel(), vd COUNT song song không còn cần) không làm hỏng connection.
+ * Hikari mặc định coi mọi SQLTimeoutException là connection hỏng và bỏ khỏi pool,
+ * mà H2 / MySQL báo câu bị hủy bằng chính SQLTimeoutException.
+ */
+public class CancelledQueryExceptionOverride implements SQLExceptionOverride {
+
+    // H2: 57014, MySQL Connector/J: 70100
+    private static final Set<String> CANCELLED_STATES = new HashSet<>(Arrays.asList("57014", "70100"));
+
+    // không gắn @Override được: trùng tên enum SQLExceptionOverride.Override
+    public Override adjudicate(SQLException sqlException) {
+        return CANCELLED_STATES.contains(sqlException.getSQLState())
+            ? Override.DO_NOT_EVICT
+            : Override.CONTINUE_EVICT;
+    }
+}
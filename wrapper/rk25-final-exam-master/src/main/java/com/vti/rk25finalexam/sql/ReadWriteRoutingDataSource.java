@@ -0,0 +1,85 @@
+package com.vti.rk25finalexam.sql;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * Transaction readOnly -> replica (round robin), còn lại -> primary.
+ * <p>
+ * Phải được bọc bởi LazyConnectionDataSourceProxy: JpaTransactionManager lấy connection lúc begin,
+ * trước khi cờ readOnly được gắn vào thread; proxy lazy chỉ lấy connection thật ở câu lệnh đầu tiên.
+ * <p>
+ * Read-your-writes: khi một request đã chạy transaction ghi, các transaction readOnly sau đó
+ * trong cùng request (cùng session JPA, open-in-view) vẫn đọc primary, tránh đọc replica chưa kịp đồng bộ.
+ * Ngoài request (scheduler, startup) không ghim.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+
+    private static final String PRIMARY = "primary";
+
+    private static final String PRIMARY_PINNED = ReadWriteRoutingDataSource.class.getName() + ".PRIMARY_PINNED";
+
+    private final List<DataSource> dataSources;
+
+    private final String[] replicas;
+
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReadWriteRoutingDataSource(DataSource primary, List<DataSource> replicas) {
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        this.replicas = new String[replicas.size()];
+        for (int i = 0; i < replicas.size(); i++) {
+            this.replicas[i] = "replica-" + i;
+            targets.put(this.replicas[i], replicas.get(i));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        this.dataSources = new ArrayList<>(replicas);
+        this.dataSources.add(0, primary);
+    }
+
+    // primary trước, sau đó các replica
+    public List<DataSource> getDataSources() {
+        return Collections.unmodifiableList(dataSources);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        // ngoài transaction (vd: lazy load open-in-view) không biết có ghi hay không -> primary
+        if (!TransactionSynchronizationManager.isActualTransactionActive() || replicas.length == 0) {
+            return PRIMARY;
+        }
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (request != null) {
+                request.setAttribute(PRIMARY_PINNED, Boolean.TRUE, RequestAttributes.SCOPE_REQUEST);
+            }
+            return PRIMARY;
+        }
+        if (request != null && request.getAttribute(PRIMARY_PINNED, RequestAttributes.SCOPE_REQUEST) != null) {
+            return PRIMARY;
+        }
+        return replicas[Math.floorMod(next.getAndIncrement(), replicas.length)];
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (DataSource dataSource : dataSources) {
+            if (dataSource instanceof Closeable) {
+                ((Closeable) dataSource).close();
+            }
+        }
+    }
+}
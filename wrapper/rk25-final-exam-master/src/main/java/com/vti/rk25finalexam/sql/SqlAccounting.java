@@ -0,0 +1,117 @@
+package com.vti.rk25finalexam.sql;
+
+import com.vti.rk25finalexam.common.Constants.SQL_ACCOUNTING;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * Số câu SQL, thời gian JDBC và số dòng đọc được của một request.
+ * Gắn vào thread xử lý request (SqlAccountingFilter); query chạy ở thread khác (vd: count=parallel)
+ * không được tính.
+ * Shape của câu lệnh là chính chuỗi SQL: tham số đều được bind (?) nên cùng shape là cùng chuỗi.
+ * Số dòng chỉ có khi bật app.sql-accounting.count-rows.
+ */
+public class SqlAccounting {
+
+    private static final ThreadLocal<SqlAccounting> CURRENT = new ThreadLocal<>();
+
+    private final int nPlusOneThreshold;
+
+    private final boolean countRows;
+
+    private final Map<String, Integer> shapes = new HashMap<>();
+
+    private int statements;
+
+    private long nanos;
+
+    private long rows;
+
+    private String repeatedShape;
+
+    private int repeated;
+
+    public SqlAccounting(int nPlusOneThreshold, boolean countRows) {
+        this.nPlusOneThreshold = nPlusOneThreshold;
+        this.countRows = countRows;
+    }
+
+    public static SqlAccounting start(int nPlusOneThreshold, boolean countRows) {
+        SqlAccounting accounting = new SqlAccounting(nPlusOneThreshold, countRows);
+        CURRENT.set(accounting);
+        return accounting;
+    }
+
+    public static SqlAccounting current() {
+        return CURRENT.get();
+    }
+
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    public void statement(String sql, long elapsedNanos) {
+        statements++;
+        nanos += elapsedNanos;
+        int count = shapes.merge(sql, 1, Integer::sum);
+        if (count > repeated) {
+            repeated = count;
+            repeatedShape = sql;
+        }
+    }
+
+    public void row() {
+        rows++;
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public long getNanos() {
+        return nanos;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    /**
+     * Các câu SQL khác nhau đã chạy, đúng chuỗi JDBC nhận được.
+     */
+    public Set<String> getShapes() {
+        return shapes.keySet();
+    }
+
+    /**
+     * Câu SQL lặp lại nhiều nhất và số lần lặp.
+     */
+    public String getRepeatedShape() {
+        return repeatedShape;
+    }
+
+    public int getRepeated() {
+        return repeated;
+    }
+
+    /**
+     * Cùng một câu SQL chạy từ {@code n-plus-one-threshold} lần trở lên trong một request.
+     */
+    public boolean isSuspectedNPlusOne() {
+        return repeated >= nPlusOneThreshold;
+    }
+
+    public void writeHeaders(BiConsumer<String, String> header) {
+        header.accept(SQL_ACCOUNTING.HEADER_QUERY_COUNT, String.valueOf(statements));
+        header.accept(SQL_ACCOUNTING.HEADER_DB_TIME, String.format(Locale.ROOT, "%.3f", nanos / 1_000_000.0));
+        if (countRows) {
+            header.accept(SQL_ACCOUNTING.HEADER_DB_ROWS, String.valueOf(rows));
+        }
+        if (isSuspectedNPlusOne()) {
+            header.accept(SQL_ACCOUNTING.HEADER_N_PLUS_ONE, String.valueOf(repeated));
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.vti.rk25finalexam.sql;
+
+import com.vti.rk25finalexam.common.Constants.SQL_ACCOUNTING;
+import java.io.IOException;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Mở SqlAccounting cho mỗi request. Header được ghi trước khi serialize body (SqlAccountingResponseAdvice),
+ * hoặc ở đây nếu response chưa commit (vd: 204 không có body).
+ * Kết quả cuối cùng (kể cả query chạy lúc serialize) nằm trong request attribute
+ * {@link SQL_ACCOUNTING#REQUEST_ATTRIBUTE} và được log nếu nghi N+1.
+ */
+@Slf4j
+public class SqlAccountingFilter extends OncePerRequestFilter {
+
+    private static final int MAX_LOGGED_SQL_LENGTH = 300;
+
+    private final int nPlusOneThreshold;
+
+    private final boolean countRows;
+
+    public SqlAccountingFilter(int nPlusOneThreshold, boolean countRows) {
+        this.nPlusOneThreshold = nPlusOneThreshold;
+        this.countRows = countRows;
+    }
+
+    @Override
+    protected void doFilterInternal(
+        HttpServletRequest request,
+        HttpServletResponse response,
+        FilterChain filterChain
+    ) throws ServletException, IOException {
+        SqlAccounting accounting = SqlAccounting.start(nPlusOneThreshold, countRows);
+        request.setAttribute(SQL_ACCOUNTING.REQUEST_ATTRIBUTE, accounting);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            SqlAccounting.end();
+            if (!response.isCommitted()) {
+                accounting.writeHeaders(response::setHeader);
+            }
+            if (accounting.isSuspectedNPlusOne()) {
+                String sql = accounting.getRepeatedShape();
+                log.warn("Suspected N+1 on {} {}: {} statements, same query {} times: {}",
+                    request.getMethod(), request.getRequestURI(),
+                    accounting.getStatements(), accounting.getRepeated(),
+                    sql.length() > MAX_LOGGED_SQL_LENGTH ? sql.substring(0, MAX_LOGGED_SQL_LENGTH) + "..." : sql);
+            }
+        }
+    }
+}
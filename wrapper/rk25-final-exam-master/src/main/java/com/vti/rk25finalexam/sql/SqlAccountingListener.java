@@ -0,0 +1,53 @@
+package com.vti.rk25finalexam.sql;
+
+import java.sql.ResultSet;
+import java.util.List;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.listener.MethodExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+/**
+ * Nghe ở tầng JDBC (datasource-proxy) nên tính cả câu lệnh của Hibernate lẫn JdbcTemplate.
+ * Ngoài request (scheduler, startup) không có SqlAccounting -> bỏ qua.
+ */
+public class SqlAccountingListener implements QueryExecutionListener, MethodExecutionListener {
+
+    private static final String START = "sqlAccounting.start";
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        if (SqlAccounting.current() != null) {
+            execInfo.addCustomValue(START, System.nanoTime());
+        }
+    }
+
+    // batch (executeBatch) tính là một câu lệnh
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        SqlAccounting accounting = SqlAccounting.current();
+        Long start = execInfo.getCustomValue(START, Long.class);
+        if (accounting == null || start == null || queryInfoList.isEmpty()) {
+            return;
+        }
+        accounting.statement(queryInfoList.get(0).getQuery(), System.nanoTime() - start);
+    }
+
+    @Override
+    public void beforeMethod(MethodExecutionContext executionContext) {
+    }
+
+    // mỗi lần ResultSet.next() trả về true là một dòng
+    @Override
+    public void afterMethod(MethodExecutionContext executionContext) {
+        if (executionContext.getTarget() instanceof ResultSet
+            && "next".equals(executionContext.getMethod().getName())
+            && Boolean.TRUE.equals(executionContext.getResult())) {
+            SqlAccounting accounting = SqlAccounting.current();
+            if (accounting != null) {
+                accounting.row();
+            }
+        }
+    }
+}
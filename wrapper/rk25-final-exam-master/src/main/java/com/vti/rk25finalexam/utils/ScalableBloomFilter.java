@@ -0,0 +1,159 @@
+package com.vti.rk25finalexam.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter tự mở rộng (scalable Bloom filter): khi tầng hiện tại đầy thì thêm tầng mới
+ * gấp đôi sức chứa với tỉ lệ false positive giảm một nửa, nên tổng tỉ lệ false positive
+ * không vượt quá giá trị cấu hình. Thread-safe, không bao giờ cho false negative.
+ */
+public class ScalableBloomFilter {
+
+    private static final int GROWTH_FACTOR = 2;
+
+    private static final double TIGHTENING_RATIO = 0.5;
+
+    private final List<Stage> stages = new CopyOnWriteArrayList<>();
+
+    private final AtomicLong size = new AtomicLong();
+
+    public ScalableBloomFilter(long initialCapacity, double falsePositiveRate) {
+        stages.add(new Stage(initialCapacity, falsePositiveRate * TIGHTENING_RATIO));
+    }
+
+    public boolean mightContain(String value) {
+        long h1 = hash(value);
+        long h2 = mix(h1 + 0x9E3779B97F4A7C15L);
+        for (Stage stage : stages) {
+            if (stage.mightContain(h1, h2)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public void put(String value) {
+        long h1 = hash(value);
+        long h2 = mix(h1 + 0x9E3779B97F4A7C15L);
+        for (Stage stage : stages) {
+            if (stage.mightContain(h1, h2)) {
+                return;
+            }
+        }
+        currentStage().put(h1, h2);
+        size.incrementAndGet();
+    }
+
+    public long size() {
+        return size.get();
+    }
+
+    public int stageCount() {
+        return stages.size();
+    }
+
+    public long memoryBytes() {
+        return stages.stream().mapToLong(stage -> stage.words.length() * (long) Long.BYTES).sum();
+    }
+
+    // ước lượng theo độ đầy thực tế của từng tầng: 1 - Π(1 - p_i)
+    public double expectedFalsePositiveRate() {
+        double none = 1;
+        for (Stage stage : stages) {
+            none *= 1 - stage.expectedFalsePositiveRate();
+        }
+        return 1 - none;
+    }
+
+    private Stage currentStage() {
+        Stage last = stages.get(stages.size() - 1);
+        if (last.count.get() < last.capacity) {
+            return last;
+        }
+        synchronized (stages) {
+            last = stages.get(stages.size() - 1);
+            if (last.count.get() >= last.capacity) {
+                last = new Stage(last.capacity * GROWTH_FACTOR, last.falsePositiveRate * TIGHTENING_RATIO);
+                stages.add(last);
+            }
+            return last;
+        }
+    }
+
+    // FNV-1a 64 bit + murmur3 fmix64
+    private static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    private static class Stage {
+
+        private final long capacity;
+
+        private final double falsePositiveRate;
+
+        private final long bits;
+
+        private final int hashes;
+
+        private final AtomicLongArray words;
+
+        private final AtomicLong count = new AtomicLong();
+
+        private Stage(long capacity, double falsePositiveRate) {
+            this.capacity = Math.max(capacity, 1);
+            this.falsePositiveRate = falsePositiveRate;
+            long optimalBits = (long) Math.ceil(
+                -this.capacity * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            int wordCount = (int) ((optimalBits + Long.SIZE - 1) / Long.SIZE);
+            this.words = new AtomicLongArray(wordCount);
+            this.bits = (long) wordCount * Long.SIZE;
+            this.hashes = Math.max(1, (int) Math.round((double) bits / this.capacity * Math.log(2)));
+        }
+
+        // double hashing (Kirsch-Mitzenmacher): index_i = h1 + i * h2
+        private boolean mightContain(long h1, long h2) {
+            for (int i = 0; i < hashes; i++) {
+                long index = Math.floorMod(h1 + i * h2, bits);
+                if ((words.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void put(long h1, long h2) {
+            for (int i = 0; i < hashes; i++) {
+                long index = Math.floorMod(h1 + i * h2, bits);
+                int word = (int) (index >>> 6);
+                long mask = 1L << index;
+                long current;
+                do {
+                    current = words.get(word);
+                } while ((current & mask) == 0 && !words.compareAndSet(word, current, current | mask));
+            }
+            count.incrementAndGet();
+        }
+
+        private double expectedFalsePositiveRate() {
+            return Math.pow(1 - Math.exp(-(double) hashes * count.get() / bits), hashes);
+        }
+    }
+}
@@ -1,9 +1,53 @@
 package com.vti.rk25finalexam.utils;
 
+import java.sql.SQLException;
+import java.text.Normalizer;
+import java.util.Locale;
+
 public class Utils {
 
+    // mã lỗi MySQL: ER_DUP_ENTRY, ER_DUP_ENTRY_WITH_KEY_NAME
+    private static final int MYSQL_DUP_ENTRY = 1062;
+
+    private static final int MYSQL_DUP_ENTRY_WITH_KEY_NAME = 1586;
+
+    // SQLState unique violation của H2 (MySQL trả 23000 chung cho mọi lỗi ràng buộc)
+    private static final String UNIQUE_VIOLATION = "23505";
+
+    // ký tự escape của LIKE: '\' trong literal SQL của MySQL lại bị hiểu là escape của chuỗi nên dùng '!'
+    public static final char LIKE_ESCAPE = '!';
+
     public static Boolean checkStringAsDigit(String s) {
         if (s == null) return false;
         return s.matches("\\d+");
     }
+
+    // collation mặc định của MySQL (utf8mb4_0900_ai_ci, PAD SPACE) không phân biệt hoa thường / dấu
+    // và bỏ khoảng trắng cuối: hai username cùng kết quả = DB coi là một
+    public static String normalizeUsername(String username) {
+        String stripped = Normalizer.normalize(username, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "");
+        return stripped.toLowerCase(Locale.ROOT).replaceAll("\\s+$", "");
+    }
+
+    // '%x%' cho LIKE ... ESCAPE '!': % và _ trong x được so khớp như ký tự thường, giống AccountSearchIndex
+    public static String containsPattern(String value) {
+        String escaped = value.replace("!", "!!").replace("%", "!%").replace("_", "!_");
+        return "%" + escaped + "%";
+    }
+
+    // chỉ lỗi trùng unique key, không phải FK / NOT NULL
+    public static boolean isDuplicateKey(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException) {
+                SQLException sqlException = (SQLException) cause;
+                if (UNIQUE_VIOLATION.equals(sqlException.getSQLState())
+                        || sqlException.getErrorCode() == MYSQL_DUP_ENTRY
+                        || sqlException.getErrorCode() == MYSQL_DUP_ENTRY_WITH_KEY_NAME) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
 }
@@ -0,0 +1,475 @@
+package com.vti.rk25finalexam;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.jayway.jsonpath.JsonPath;
+import com.vti.rk25finalexam.common.Constants.IS_DELETED;
+import com.vti.rk25finalexam.entity.Account;
+import com.vti.rk25finalexam.entity.Department;
+import com.vti.rk25finalexam.repository.AccountRepository;
+import com.vti.rk25finalexam.repository.DepartmentRepository;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+@ActiveProfiles("test")
+@SpringBootTest
+@AutoConfigureMockMvc
+class AccountApiTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private DepartmentRepository departmentRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Department department;
+
+    @BeforeEach
+    void setUp() {
+        department = departmentRepository.save(new Department().name("Department"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("delete from account");
+        departmentRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void createDuplicateUnknownToFilterIsRejected() throws Exception {
+        // ghi thẳng bằng JDBC: bloom filter không biết username này
+        jdbcTemplate.update("insert into account (username, first_name, last_name, role, department_id, is_deleted) "
+            + "values (?, ?, ?, ?, ?, ?)", "ghost", "First", "Last", "EMPLOYEE", department.getId(), IS_DELETED.FALSE);
+
+        mockMvc.perform(post("/api/v1/accounts")
+                .contentType("application/json")
+                .content(createBody("ghost")))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.errorCode").value("account.username.isExisted"));
+    }
+
+    @Test
+    void filterNegationKeepsAccountsWithoutDepartment() throws Exception {
+        save("alice", "ADMIN", department);
+        save("bob", "EMPLOYEE", null);
+
+        mockMvc.perform(get("/api/v1/accounts/filter").param("q", "NOT departmentName:equals:Department"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[*].username").value(containsInAnyOrder("bob")));
+        mockMvc.perform(get("/api/v1/accounts/filter").param("q", "departmentName:notEquals:Department"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[*].username").value(containsInAnyOrder("bob")));
+        mockMvc.perform(get("/api/v1/accounts/filter").param("q", "NOT departmentId:in:" + department.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[*].username").value(containsInAnyOrder("bob")));
+        mockMvc.perform(get("/api/v1/accounts/filter").param("q", "departmentName:equals:Department"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[*].username").value(containsInAnyOrder("alice")));
+    }
+
+    @Test
+    void filterAppliesAndBeforeOr() throws Exception {
+        save("alice", "EMPLOYEE", department);
+        save("bob", "EMPLOYEE", null);
+        save("carol", "ADMIN", department);
+
+        mockMvc.perform(get("/api/v1/accounts/filter")
+                .param("q", "username:equals:bob OR role:equals:ADMIN AND departmentName:contains:\"Depart\""))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[*].username").value(containsInAnyOrder("bob", "carol")));
+        mockMvc.perform(get("/api/v1/accounts/filter")
+                .param("q", "(username:equals:bob OR role:equals:ADMIN) AND departmentName:contains:Depart"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[*].username").value(containsInAnyOrder("carol")));
+    }
+
+    @Test
+    void invalidFilterIsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/v1/accounts/filter").param("q", "(username:equals:bob"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.errorCode").value("filter.isNotValid"));
+        mockMvc.perform(get("/api/v1/accounts/filter").param("q", "username:greaterThan:bob"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.errorCode").value("filter.operator.isNotValid"));
+        mockMvc.perform(get("/api/v1/accounts/filter").param("q", "departmentId:equals:abc"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.errorCode").value("filter.value.isNotValid"));
+        mockMvc.perform(get("/api/v1/accounts/filter")
+                .param("field", "password").param("operator", "equals").param("value", "x"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.errorCode").value("filter.field.isNotValid"));
+    }
+
+    @Test
+    void patchUnknownAccountIsRejected() throws Exception {
+        mockMvc.perform(patch("/api/v1/accounts/999999")
+                .contentType("application/json")
+                .content("{\"firstName\":\"Patched\"}"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.errorCode").value("account.id.isNotExisted"));
+    }
+
+    @Test
+    void patchUnknownDepartmentIsRejected() throws Exception {
+        Account account = save("alice", "EMPLOYEE", department);
+
+        mockMvc.perform(patch("/api/v1/accounts/" + account.getId())
+                .contentType("application/json")
+                .content("{\"departmentId\":999999}"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.errorCode").value("account.departmentId.isNotExisted"));
+    }
+
+    @Test
+    void patchDuplicateUsernameIsRejected() throws Exception {
+        save("alice", "EMPLOYEE", department);
+        Account bob = save("bob", "EMPLOYEE", department);
+
+        mockMvc.perform(patch("/api/v1/accounts/" + bob.getId())
+                .contentType("application/json")
+                .content("{\"username\":\"alice\"}"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.errorCode").value("account.username.isExisted"));
+    }
+
+    @Test
+    void patchInvalidUsernameIsRejectedBeforeUpdate() throws Exception {
+        Account account = save("alice", "EMPLOYEE", department);
+
+        mockMvc.perform(patch("/api/v1/accounts/" + account.getId())
+                .contentType("application/json")
+                .content("{\"username\":\"   \"}"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.username").value("Username is not blank"));
+        mockMvc.perform(patch("/api/v1/accounts/" + account.getId())
+                .contentType("application/json")
+                .content("{\"username\":\"" + "a".repeat(51) + "\"}"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.username").value("Length of username is not over 50 chars"));
+    }
+
+    @Test
+    void cachedAccountFollowsDepartmentRename() throws Exception {
+        // username riêng: cache sống qua các test, tearDown xóa bằng JDBC không evict
+        save("renamed_dept", "EMPLOYEE", department);
+        mockMvc.perform(get("/api/v1/accounts/username/renamed_dept"))
+            .andExpect(jsonPath("$.deptName").value("Department"));
+
+        departmentRepository.save(department.name("Renamed"));
+
+        mockMvc.perform(get("/api/v1/accounts/username/renamed_dept"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.deptName").value("Renamed"));
+    }
+
+    @Test
+    void cachedAccountIsInvalidatedByPatch() throws Exception {
+        Account account = save("alice", "EMPLOYEE", department);
+        mockMvc.perform(get("/api/v1/accounts/batch").param("ids", String.valueOf(account.getId())))
+            .andExpect(jsonPath("$.content[0].firstName").value("First"));
+
+        mockMvc.perform(patch("/api/v1/accounts/" + account.getId())
+                .contentType("application/json")
+                .content("{\"firstName\":\"Patched\"}"))
+            .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/v1/accounts/batch").param("ids", String.valueOf(account.getId())))
+            .andExpect(jsonPath("$.content[0].firstName").value("Patched"));
+    }
+
+    @Test
+    void cachedAccountIsInvalidatedByDelete() throws Exception {
+        Account account = save("alice", "EMPLOYEE", department);
+        mockMvc.perform(get("/api/v1/accounts/batch").param("ids", String.valueOf(account.getId())))
+            .andExpect(jsonPath("$.content[0].username").value("alice"));
+
+        mockMvc.perform(delete("/api/v1/accounts/" + account.getId()))
+            .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/v1/accounts/batch").param("ids", String.valueOf(account.getId())))
+            .andExpect(jsonPath("$.content").isEmpty())
+            .andExpect(jsonPath("$.missing").value(contains(account.getId())));
+    }
+
+    @Test
+    void cachedAccountIsInvalidatedByBulkUpdate() throws Exception {
+        Account account = save("bulk_cached", "EMPLOYEE", department);
+        Account other = save("bulk_other", "EMPLOYEE", department);
+        mockMvc.perform(get("/api/v1/accounts/batch").param("ids", account.getId() + "," + other.getId()))
+            .andExpect(jsonPath("$.content[*].role").value(contains("EMPLOYEE", "EMPLOYEE")));
+
+        mockMvc.perform(patch("/api/v1/accounts").param("username.equals", "bulk_cached")
+                .contentType("application/json")
+                .content("{\"role\":\"ADMIN\"}"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.affected").value(1));
+
+        mockMvc.perform(get("/api/v1/accounts/batch").param("ids", String.valueOf(account.getId())))
+            .andExpect(jsonPath("$.content[0].role").value("ADMIN"));
+        // chỉ bỏ cache của account bị UPDATE: account khác vẫn lấy từ cache (sửa thẳng DB không thấy)
+        jdbcTemplate.update("update account set role = 'MANAGER' where id = ?", other.getId());
+        mockMvc.perform(get("/api/v1/accounts/batch").param("ids", String.valueOf(other.getId())))
+            .andExpect(jsonPath("$.content[0].role").value("EMPLOYEE"));
+    }
+
+    @Test
+    void bulkUpdateToUnknownDepartmentIsRejected() throws Exception {
+        save("alice", "EMPLOYEE", department);
+
+        mockMvc.perform(patch("/api/v1/accounts").param("username.equals", "alice")
+                .contentType("application/json")
+                .content("{\"departmentId\":999999}"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.errorCode").value("account.departmentId.isNotExisted"));
+    }
+
+    @Test
+    void parallelCountReportsTotal() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            save("parallel" + i, "EMPLOYEE", department);
+        }
+
+        mockMvc.perform(get("/api/v1/accounts").param("count", "parallel").param("size", "2"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.content.length()").value(2))
+            .andExpect(jsonPath("$.totalElements").value(3));
+        // trang đầu chưa đầy: tổng số lấy từ trang, COUNT bị hủy
+        mockMvc.perform(get("/api/v1/accounts").param("count", "parallel").param("size", "10"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.totalElements").value(3));
+    }
+
+    @Test
+    void cancelledCountDoesNotRun() {
+        save("alice", "EMPLOYEE", department);
+        List<Runnable> queued = new ArrayList<>();
+
+        CompletableFuture<Long> cancelled = accountRepository.countAsync(null, queued::add);
+        assertThat(cancelled.cancel(true)).isTrue();
+        queued.forEach(Runnable::run);
+
+        assertThat(cancelled).isCancelled();
+        assertThat(accountRepository.countAsync(null, Runnable::run).join()).isEqualTo(1);
+    }
+
+    @Test
+    void importRejectsDuplicateInsideFile() throws Exception {
+        mockMvc.perform(post("/api/v1/accounts/import")
+                .contentType("application/json")
+                .content("[" + createBody("import_dup") + "," + createBody("import_dup") + "]"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[*].status").value(contains("CREATED", "FAILED")))
+            .andExpect(jsonPath("$[1].errorCode").value("account.username.isDuplicated"));
+
+        assertThat(accountRepository.findByUsername("import_dup")).isPresent();
+    }
+
+    @Test
+    void importComparesUsernamesLikeTheDatabase() throws Exception {
+        save("import_existed", "EMPLOYEE", department);
+
+        // collation của DB không phân biệt hoa thường: trùng trong file cũng như trùng với DB
+        mockMvc.perform(post("/api/v1/accounts/import")
+                .contentType("application/json")
+                .content("[" + createBody("import_case") + "," + createBody("IMPORT_CASE") + ","
+                    + createBody("import_existed") + "]"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[*].status").value(contains("CREATED", "FAILED", "FAILED")))
+            .andExpect(jsonPath("$[1].errorCode").value("account.username.isDuplicated"))
+            .andExpect(jsonPath("$[2].errorCode").value("account.username.isExisted"));
+    }
+
+    @Test
+    void importAppliesCreateConstraints() throws Exception {
+        mockMvc.perform(post("/api/v1/accounts/import")
+                .contentType("application/json")
+                .content("[" + createBody("   ") + "," + createBody("a".repeat(51)) + ","
+                    + createBody("import_valid") + "]"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[*].status").value(contains("FAILED", "FAILED", "CREATED")))
+            .andExpect(jsonPath("$[0].errorCode").value("account.username.isBlank"))
+            .andExpect(jsonPath("$[1].errorCode").value("account.username.isTooLong"));
+    }
+
+    @Test
+    void importKeepsRowsOfAFailedBatch() throws Exception {
+        // ghi thẳng bằng JDBC: bloom filter không biết username này, lô insert sẽ vướng unique key
+        jdbcTemplate.update("insert into account (username, first_name, last_name, role, department_id, is_deleted) "
+            + "values (?, ?, ?, ?, ?, ?)", "import_ghost", "First", "Last", "EMPLOYEE", department.getId(), IS_DELETED.FALSE);
+
+        mockMvc.perform(post("/api/v1/accounts/import")
+                .contentType("application/json")
+                .content("[" + createBody("import_first") + "," + createBody("import_ghost") + ","
+                    + createBody("import_last") + "]"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[*].status").value(contains("CREATED", "FAILED", "CREATED")))
+            .andExpect(jsonPath("$[1].errorCode").value("account.username.isExisted"))
+            .andExpect(jsonPath("$[0].id").isNumber());
+
+        assertThat(accountRepository.findByUsername("import_first")).isPresent();
+        assertThat(accountRepository.findByUsername("import_last")).isPresent();
+    }
+
+    @Test
+    void exportWritesOneLinePerAccount() throws Exception {
+        save("export_a", "EMPLOYEE", department);
+        save("export_b", "ADMIN", null);
+
+        String ndjson = mockMvc.perform(get("/api/v1/accounts/export"))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+        assertThat(ndjson).endsWith("}\n");
+        assertThat(ndjson.split("\n")).hasSize(2);
+        assertThat(ndjson).contains("\"username\":\"export_a\"").contains("\"username\":\"export_b\"");
+
+        String csv = mockMvc.perform(get("/api/v1/accounts/export").param("format", "csv")
+                .param("username.equals", "export_a"))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+        assertThat(csv).isEqualTo("id,username,firstName,lastName,role,deptId,deptName\n"
+            + accountRepository.findByUsername("export_a").get().getId()
+            + ",export_a,First,Last,EMPLOYEE," + department.getId() + ",Department\n");
+    }
+
+    @Test
+    void emptyNdjsonExportHasEmptyBody() throws Exception {
+        mockMvc.perform(get("/api/v1/accounts/export"))
+            .andExpect(status().isOk())
+            .andExpect(content().string(""));
+    }
+
+    @Test
+    void cursorPagesWalkAllAccountsWithTiesOnSortColumn() throws Exception {
+        // firstName giống nhau ở mọi account: thứ tự trong nhóm bằng nhau do id quyết định
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            expected.add(save("cursor" + i, "EMPLOYEE", department).getUsername());
+        }
+
+        assertThat(walkCursor("firstName,asc")).containsExactlyElementsOf(expected);
+        assertThat(walkCursor("id,asc")).containsExactlyElementsOf(expected);
+        Collections.reverse(expected);
+        assertThat(walkCursor("firstName,desc")).containsExactlyElementsOf(expected);
+        assertThat(walkCursor("id,desc")).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void cursorFirstPageAcceptsMissingOrEmptyAfter() throws Exception {
+        save("cursor_first", "EMPLOYEE", department);
+
+        mockMvc.perform(get("/api/v1/accounts").param("count", "cursor"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.content[*].username").value(contains("cursor_first")))
+            .andExpect(jsonPath("$.hasNext").value(false));
+        mockMvc.perform(get("/api/v1/accounts").param("after", ""))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.content[*].username").value(contains("cursor_first")));
+        mockMvc.perform(get("/api/v1/accounts?after"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.content[*].username").value(contains("cursor_first")));
+    }
+
+    @Test
+    void cursorFromAnotherSortIsRejected() throws Exception {
+        save("cursor0", "EMPLOYEE", department);
+        save("cursor1", "EMPLOYEE", department);
+        String next = JsonPath.read(mockMvc.perform(get("/api/v1/accounts")
+                .param("count", "cursor").param("size", "1").param("sort", "id,asc"))
+            .andReturn().getResponse().getContentAsString(), "$.next");
+
+        mockMvc.perform(get("/api/v1/accounts").param("after", next).param("sort", "id,desc"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.errorCode").value("account.cursor.isNotValid"));
+    }
+
+    @Test
+    void searchDigitsAlsoMatchAccountId() throws Exception {
+        Account alice = save("alice", "EMPLOYEE", department);
+        save("emp" + alice.getId(), "EMPLOYEE", department);
+        save("bob", "EMPLOYEE", department);
+
+        mockMvc.perform(get("/api/v1/accounts").param("search.contains", alice.getId().toString()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.content[*].username").value(containsInAnyOrder("alice", "emp" + alice.getId())));
+        // quá 9 chữ số: không so với id (tránh tràn Integer)
+        mockMvc.perform(get("/api/v1/accounts").param("search.contains", "12345678901"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.content").isEmpty());
+    }
+
+    @Test
+    void searchMatchesWildcardsLiterally() throws Exception {
+        save("a_b", "EMPLOYEE", department);
+        save("a%b", "EMPLOYEE", department);
+        save("a!b", "EMPLOYEE", department);
+        save("axb", "EMPLOYEE", department);
+
+        // giống AccountSearchIndex: % _ trong từ khóa không phải wildcard của LIKE
+        for (String username : new String[] {"a_b", "a%b", "a!b"}) {
+            mockMvc.perform(get("/api/v1/accounts").param("search.contains", username))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[*].username").value(containsInAnyOrder(username)));
+        }
+        mockMvc.perform(get("/api/v1/accounts").param("username.notContains", "_"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.content[*].username").value(containsInAnyOrder("a%b", "a!b", "axb")));
+    }
+
+    private Account save(String username, String role, Department department) {
+        return accountRepository.save(new Account()
+            .username(username)
+            .firstName("First")
+            .lastName("Last")
+            .role(role)
+            .department(department));
+    }
+
+    // đi hết các trang, mỗi trang 2 dòng
+    private List<String> walkCursor(String sort) throws Exception {
+        List<String> usernames = new ArrayList<>();
+        String after = "";
+        for (int page = 0; page < 10; page++) {
+            String body = mockMvc.perform(get("/api/v1/accounts")
+                    .param("after", after).param("size", "2").param("sort", sort))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+            usernames.addAll(JsonPath.read(body, "$.content[*].username"));
+            if (!(Boolean) JsonPath.read(body, "$.hasNext")) {
+                return usernames;
+            }
+            after = JsonPath.read(body, "$.next");
+        }
+        throw new AssertionError("cursor does not terminate for sort " + sort);
+    }
+
+    private String createBody(String username) {
+        return "{\"username\":\"" + username + "\",\"firstName\":\"First\",\"lastName\":\"Last\","
+            + "\"role\":\"EMPLOYEE\",\"departmentId\":" + department.getId() + "}";
+    }
+}
@@ -0,0 +1,308 @@
+package com.vti.rk25finalexam;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.vti.rk25finalexam.common.Constants.SQL_ACCOUNTING;
+import com.vti.rk25finalexam.entity.Account;
+import com.vti.rk25finalexam.entity.Department;
+import com.vti.rk25finalexam.repository.AccountRepository;
+import com.vti.rk25finalexam.repository.DepartmentRepository;
+import com.vti.rk25finalexam.sql.SqlAccounting;
+import com.vti.rk25finalexam.support.QueryBudget;
+import com.vti.rk25finalexam.support.SqlStatementCounter;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+@ActiveProfiles("test")
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import(SqlStatementCounter.class)
+class AccountQueryCountTests {
+
+    private static final int DEPARTMENTS = 5;
+
+    private static final int ACCOUNTS = 20;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private DepartmentRepository departmentRepository;
+
+    @Autowired
+    private SqlStatementCounter sqlStatementCounter;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < DEPARTMENTS; i++) {
+            Department department = departmentRepository.save(new Department().name("Department " + i));
+            for (int j = 0; j < ACCOUNTS / DEPARTMENTS; j++) {
+                accountRepository.save(new Account()
+                    .username("user" + i + "_" + j)
+                    .firstName("First" + j)
+                    .lastName("Last" + i)
+                    .role("EMPLOYEE")
+                    .department(department));
+            }
+        }
+        sqlStatementCounter.reset();
+    }
+
+    @AfterEach
+    void tearDown() {
+        accountRepository.deleteAllInBatch();
+        departmentRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void findAllBySpecLoadsDepartmentsInTheSameQuery() {
+        Page<Account> page = accountRepository.findAll(
+            Specification.where(null), PageRequest.of(0, 100));
+
+        page.forEach(account -> assertThat(account.getDepartment().getName()).isNotNull());
+        assertThat(page.getContent()).hasSize(ACCOUNTS);
+        sqlStatementCounter.assertStatementCount(1);
+    }
+
+    @Test
+    void findAllLoadsDepartmentsInTheSameQuery() {
+        List<Account> accounts = accountRepository.findAll();
+
+        accounts.forEach(account -> assertThat(account.getDepartment().getName()).isNotNull());
+        sqlStatementCounter.assertStatementCount(1);
+    }
+
+    @Test
+    void getAllRunsPageAndCountQueriesOnly() throws Exception {
+        mockMvc.perform(get("/api/v1/accounts").param("size", "10"))
+            .andExpect(status().isOk());
+
+        sqlStatementCounter.assertStatementCount(2);
+    }
+
+    @Test
+    void getAllWithoutCountRunsOneQuery() throws Exception {
+        mockMvc.perform(get("/api/v1/accounts").param("size", "10").param("count", "none"))
+            .andExpect(status().isOk());
+
+        sqlStatementCounter.assertStatementCount(1);
+    }
+
+    @Test
+    void getAllReportsSqlAccountingHeaders() throws Exception {
+        mockMvc.perform(get("/api/v1/accounts").param("size", "10"))
+            .andExpect(status().isOk())
+            .andExpect(header().string("X-Query-Count", "2"))
+            .andExpect(header().string("X-DB-Rows", "11"))
+            .andExpect(header().exists("X-DB-Time"))
+            .andExpect(header().doesNotExist("X-N-Plus-One"))
+            .andExpect(QueryBudget.queryCount(2))
+            .andExpect(QueryBudget.noNPlusOne());
+    }
+
+    @Test
+    void deleteAllByCriteriaLocksIdsThenRunsOneUpdate() throws Exception {
+        mockMvc.perform(delete("/api/v1/accounts").param("lastName.equals", "Last0"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.affected").value(ACCOUNTS / DEPARTMENTS));
+
+        // SELECT id ... FOR UPDATE + một câu UPDATE ... WHERE id IN (...), không load entity
+        sqlStatementCounter.assertStatementCount(2);
+        assertThat(accountRepository.count()).isEqualTo(ACCOUNTS - ACCOUNTS / DEPARTMENTS);
+    }
+
+    @Test
+    void patchRunsOneUpdate() throws Exception {
+        Integer id = accountRepository.findByUsername("user0_0").get().getId();
+        Integer departmentId = departmentRepository.findAll().get(1).getId();
+        sqlStatementCounter.reset();
+
+        mockMvc.perform(patch("/api/v1/accounts/" + id)
+                .contentType("application/json")
+                .content("{\"firstName\":\"Patched\",\"departmentId\":" + departmentId + "}"))
+            .andExpect(status().isNoContent());
+
+        sqlStatementCounter.assertStatementCount(1);
+        assertThat(accountRepository.findById(id).get().getFirstName()).isEqualTo("Patched");
+    }
+
+    @Test
+    void usernameLookupIsServedFromCache() throws Exception {
+        mockMvc.perform(get("/api/v1/accounts/username/user1_1")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/v1/accounts/username/user1_1"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.username").value("user1_1"));
+
+        sqlStatementCounter.assertStatementCount(1);
+    }
+
+    @Test
+    void createSkipsUsernameAndDepartmentQueries() throws Exception {
+        Integer departmentId = departmentRepository.findAll().get(0).getId();
+        mockMvc.perform(get("/api/v1/departments")).andExpect(status().isOk());
+        sqlStatementCounter.reset();
+
+        mockMvc.perform(post("/api/v1/accounts")
+                .contentType("application/json")
+                .content("{\"username\":\"created\",\"firstName\":\"First\",\"lastName\":\"Last\","
+                    + "\"role\":\"EMPLOYEE\",\"departmentId\":" + departmentId + "}"))
+            .andExpect(status().isCreated());
+
+        // chỉ INSERT: username chưa có theo bloom filter, department lấy từ cache
+        sqlStatementCounter.assertStatementCount(1);
+    }
+
+    @Test
+    void batchByIdsKeepsOrderAndMarksMissing() throws Exception {
+        Integer first = accountRepository.findByUsername("user2_1").get().getId();
+        Integer second = accountRepository.findByUsername("user0_0").get().getId();
+        String ids = first + ",999999," + second + "," + first;
+        sqlStatementCounter.reset();
+
+        mockMvc.perform(get("/api/v1/accounts/batch").param("ids", ids))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.content[*].username").value(contains("user2_1", "user0_0")))
+            .andExpect(jsonPath("$.missing").value(contains(999999)));
+        sqlStatementCounter.assertStatementCount(1);
+
+        // lần hai lấy từ cache, id không tồn tại vẫn phải query lại
+        mockMvc.perform(get("/api/v1/accounts/batch").param("ids", ids)).andExpect(status().isOk());
+        sqlStatementCounter.assertStatementCount(2);
+    }
+
+    @Test
+    void batchByIdsRunsOneQueryPerChunk() throws Exception {
+        List<String> ids = accountRepository.findAll().stream()
+            .map(account -> String.valueOf(account.getId()))
+            .collect(Collectors.toList());
+        for (int i = 0; ids.size() < 250; i++) {
+            ids.add(String.valueOf(900000 + i));
+        }
+        sqlStatementCounter.reset();
+
+        mockMvc.perform(get("/api/v1/accounts/batch").param("ids", String.join(",", ids)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.content.length()").value(ACCOUNTS))
+            .andExpect(jsonPath("$.missing.length()").value(250 - ACCOUNTS));
+
+        // app.batch.chunk-size=100
+        sqlStatementCounter.assertStatementCount(3);
+    }
+
+    @Test
+    void batchByUsernamesMarksMissing() throws Exception {
+        mockMvc.perform(get("/api/v1/accounts/batch").param("usernames", "user3_2,unknown,user1_0"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.content[*].username").value(contains("user3_2", "user1_0")))
+            .andExpect(jsonPath("$.content[0].deptName").value("Department 3"))
+            .andExpect(jsonPath("$.missing").value(contains("unknown")));
+
+        sqlStatementCounter.assertStatementCount(1);
+    }
+
+    @Test
+    void batchDepartmentsIsServedFromCache() throws Exception {
+        List<Department> departments = departmentRepository.findAll();
+        mockMvc.perform(get("/api/v1/departments")).andExpect(status().isOk());
+        sqlStatementCounter.reset();
+
+        mockMvc.perform(get("/api/v1/departments/batch")
+                .param("ids", departments.get(2).getId() + "," + departments.get(0).getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.content[*].name").value(contains("Department 2", "Department 0")))
+            .andExpect(jsonPath("$.missing").isEmpty());
+
+        sqlStatementCounter.assertStatementCount(0);
+    }
+
+    @Test
+    void sparseFieldsNarrowSelectAndJson() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/v1/accounts")
+                .param("count", "none").param("size", "5").param("fields", "username,id"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.content[0].*", hasSize(2)))
+            .andExpect(jsonPath("$.content[0].id").exists())
+            .andExpect(jsonPath("$.content[0].username").exists())
+            .andReturn();
+
+        assertThat(executedSql(result))
+            .doesNotContain("join")
+            .doesNotContain("department")
+            .doesNotContain("first_name");
+    }
+
+    @Test
+    void sparseDeptIdReadsForeignKeyWithoutJoin() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/v1/accounts")
+                .param("count", "none").param("size", "5").param("fields", "deptId"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.content[0].*", hasSize(1)))
+            .andExpect(jsonPath("$.content[0].deptId").isNumber())
+            .andReturn();
+
+        assertThat(executedSql(result))
+            .contains("department_id")
+            .doesNotContain("join");
+    }
+
+    @Test
+    void sparseCursorPageStillReturnsNextCursor() throws Exception {
+        mockMvc.perform(get("/api/v1/accounts")
+                .param("after", "").param("size", "3").param("sort", "firstName").param("fields", "username"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.content[0].*", hasSize(1)))
+            .andExpect(jsonPath("$.next").isNotEmpty());
+    }
+
+    @Test
+    void unknownFieldIsRejected() throws Exception {
+        mockMvc.perform(get("/api/v1/accounts").param("fields", "id,password"))
+            .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/v1/accounts/username/user0_0").param("fields", "password"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void sparseFieldsNarrowLookupJson() throws Exception {
+        mockMvc.perform(get("/api/v1/accounts/username/user0_0").param("fields", "username"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.*", hasSize(1)))
+            .andExpect(jsonPath("$.username").value("user0_0"));
+        mockMvc.perform(get("/api/v1/accounts/batch").param("usernames", "user0_0,user1_0").param("fields", "deptName"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.content[*].*", hasSize(2)))
+            .andExpect(jsonPath("$.content[*].deptName").value(contains("Department 0", "Department 1")));
+    }
+
+    private String executedSql(MvcResult result) {
+        SqlAccounting accounting = (SqlAccounting) result.getRequest().getAttribute(SQL_ACCOUNTING.REQUEST_ATTRIBUTE);
+        assertThat(accounting.getStatements()).isEqualTo(1);
+        assertThat(accounting.getShapes()).hasSize(1);
+        return accounting.getShapes().iterator().next().toLowerCase();
+    }
+}
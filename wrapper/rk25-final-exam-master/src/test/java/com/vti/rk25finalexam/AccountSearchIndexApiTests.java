@@ -0,0 +1,68 @@
+package com.vti.rk25finalexam;
+
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.vti.rk25finalexam.common.Constants.IS_DELETED;
+import com.vti.rk25finalexam.service.AccountSearchIndex;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+@ActiveProfiles("test")
+@SpringBootTest(properties = "app.search.index.enabled=true")
+@AutoConfigureMockMvc
+class AccountSearchIndexApiTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AccountSearchIndex accountSearchIndex;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        // chờ lần nạp lúc khởi động xong rồi mới nạp lại
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (accountSearchIndex.search("abc").isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("delete from account");
+    }
+
+    @Test
+    void searchDigitsAlsoMatchAccountId() throws Exception {
+        // id >= 3 chữ số để term đủ dài cho index
+        insert(12345, "alice");
+        insert(20000, "emp12345");
+        insert(20001, "bob");
+        accountSearchIndex.rebuild();
+
+        mockMvc.perform(get("/api/v1/accounts").param("search.contains", "12345"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.content[*].username").value(containsInAnyOrder("alice", "emp12345")));
+        mockMvc.perform(get("/api/v1/accounts").param("search.contains", "12345678901"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.content").isEmpty());
+    }
+
+    private void insert(int id, String username) {
+        jdbcTemplate.update("insert into account (id, username, first_name, last_name, role, is_deleted) "
+            + "values (?, ?, ?, ?, ?, ?)", id, username, "First", "Last", "EMPLOYEE", IS_DELETED.FALSE);
+    }
+}
@@ -0,0 +1,50 @@
+package com.vti.rk25finalexam;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+@ActiveProfiles("test")
+@SpringBootTest(properties = {
+    "management.endpoints.web.exposure.include=prometheus",
+    "management.metrics.distribution.percentiles-histogram.http.server.requests=true",
+    "management.metrics.distribution.percentiles-histogram.spring.data.repository.invocations=true",
+    "management.metrics.distribution.percentiles-histogram.hikaricp.connections.acquire=true"
+})
+@AutoConfigureMockMvc
+@AutoConfigureMetrics
+class MetricsTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void prometheusExposesControllerRepositoryHibernateAndPoolMetrics() throws Exception {
+        mockMvc.perform(get("/api/v1/accounts")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/v1/departments")).andExpect(status().isOk());
+
+        String scrape = mockMvc.perform(get("/actuator/prometheus"))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+
+        assertThat(scrape)
+            .contains("http_server_requests_seconds_bucket{")
+            .contains("handler=\"AccountController.getAll\"")
+            .contains("handler=\"DepartmentController.getAll\"")
+            .contains("spring_data_repository_invocations_seconds_bucket{")
+            .contains("repository=\"AccountRepository\"")
+            .contains("repository=\"DepartmentRepository\"")
+            .contains("hibernate_statements_total")
+            .contains("hibernate_entities_loads_total")
+            .contains("hibernate_cache_query_plan_total")
+            .contains("hikaricp_connections_acquire_seconds_bucket{");
+    }
+}
@@ -2,7 +2,9 @@ package com.vti.rk25finalexam;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
 
+@ActiveProfiles("test")
 @SpringBootTest
 class Rk25FinalExamApplicationTests {
 
@@ -0,0 +1,64 @@
+package com.vti.rk25finalexam.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.vti.rk25finalexam.Rk25FinalExamApplication;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.servlet.Filter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledIf;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.RestTemplate;
+
+// context riêng (DB riêng) cho mỗi test: mode virtual không dùng chung context cache với các test khác
+class VirtualThreadConfigurationTests {
+
+    private static final String[] ARGS = {
+        "--server.port=0",
+        "--app.request-execution.mode=virtual",
+        "--spring.datasource.url=jdbc:h2:mem:virtual-threads;MODE=MySQL;DATABASE_TO_LOWER=TRUE",
+    };
+
+    private static final AtomicReference<Thread> REQUEST_THREAD = new AtomicReference<>();
+
+    @Test
+    @EnabledIf("com.vti.rk25finalexam.utils.VirtualThreads#isSupported")
+    void handlesRequestsOnVirtualThreads() {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(
+            Rk25FinalExamApplication.class, RequestThreadConfiguration.class).profiles("test").run(ARGS)) {
+            String url = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+
+            assertThat(new RestTemplate().getForEntity(url + "/api/v1/accounts", String.class).getStatusCode())
+                .isEqualTo(HttpStatus.OK);
+        }
+
+        assertThat(REQUEST_THREAD.get().getName()).startsWith("http-vt-");
+        assertThat(REQUEST_THREAD.get().toString()).startsWith("VirtualThread");
+    }
+
+    // JVM < 21: bật mode virtual thì app dừng ngay lúc khởi động, không âm thầm chạy bằng platform thread
+    @Test
+    @DisabledIf("com.vti.rk25finalexam.utils.VirtualThreads#isSupported")
+    void failsToStartBelowJava21() {
+        assertThatThrownBy(() -> new SpringApplicationBuilder(Rk25FinalExamApplication.class).profiles("test").run(ARGS).close())
+            .hasStackTraceContaining("Virtual threads require Java 21+");
+    }
+
+    @Configuration
+    static class RequestThreadConfiguration {
+
+        @Bean
+        public Filter requestThreadFilter() {
+            return (request, response, chain) -> {
+                REQUEST_THREAD.set(Thread.currentThread());
+                chain.doFilter(request, response);
+            };
+        }
+    }
+}
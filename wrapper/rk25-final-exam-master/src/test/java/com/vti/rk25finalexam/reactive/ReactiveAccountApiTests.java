@@ -0,0 +1,186 @@
+package com.vti.rk25finalexam.reactive;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vti.rk25finalexam.entity.Account;
+import com.vti.rk25finalexam.entity.Department;
+import com.vti.rk25finalexam.entity.dto.AccountDTO;
+import com.vti.rk25finalexam.repository.AccountRepository;
+import com.vti.rk25finalexam.repository.DepartmentRepository;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.test.web.servlet.MockMvc;
+
+@ActiveProfiles("test")
+@SpringBootTest(properties = {
+    "app.reactive.enabled=true",
+    "app.reactive.port=0",
+    "app.reactive.url=r2dbc:h2:mem:///rk25finaldb?options=MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+})
+@AutoConfigureMockMvc
+class ReactiveAccountApiTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ReactiveApiServer reactiveApiServer;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private DepartmentRepository departmentRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private WebTestClient webTestClient;
+
+    @BeforeEach
+    void setUp() {
+        webTestClient = WebTestClient.bindToServer().baseUrl("http://localhost:" + reactiveApiServer.getPort()).build();
+        Department department = departmentRepository.save(new Department().name("Sales"));
+        String[] lastNames = {"Nguyen", "Tran", "Le"};
+        String[] roles = {"ADMIN", "MANAGER", "EMPLOYEE"};
+        for (int i = 0; i < 12; i++) {
+            accountRepository.save(new Account()
+                .username("user" + i)
+                .firstName("First" + i)
+                .lastName(lastNames[i % lastNames.length])
+                .role(roles[i % roles.length])
+                .department(i % 2 == 0 ? department : null));
+        }
+        // account đã xoá mềm không được trả về ở cả hai API
+        jdbcTemplate.update("update account set is_deleted = 1 where username = 'user11'");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("delete from account");
+        departmentRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void criteriaSearchMatchesServletApi() throws Exception {
+        for (String query : new String[] {
+            "",
+            "lastName.equals=Tran",
+            "lastName.notEquals=Tran&role.contains=AN",
+            "username.notContains=1&firstName.contains=First",
+            "id.greaterThan=0&role.notEquals=ADMIN",
+            "search.contains=gu",
+            "search.contains=r_1",
+            "username.notContains=%25",
+            "search.equals=Le",
+            "search.contains=" + accountRepository.findDTOByUsername("user5").orElseThrow().getId(),
+        }) {
+            assertThat(reactiveUsernames(query)).as(query).isEqualTo(servletUsernames(query));
+        }
+    }
+
+    @Test
+    void sortMatchesServletApi() throws Exception {
+        for (String query : new String[] {
+            "sort=firstName,desc",
+            "sort=username,desc",
+            "sort=lastName&sort=id,desc",
+            "sort=role,desc&sort=id&lastName.notEquals=Le",
+        }) {
+            assertThat(reactiveUsernames(query)).as(query).isEqualTo(servletUsernames(query));
+        }
+    }
+
+    @Test
+    void rejectsUnknownSortField() {
+        webTestClient.get().uri("/api/v1/accounts?sort=password")
+            .exchange()
+            .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void missingUsernameMatchesServletApi() throws Exception {
+        webTestClient.get().uri("/api/v1/accounts/username/unknown")
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody(String.class).isEqualTo("null");
+        mockMvc.perform(get("/api/v1/accounts/username/unknown"))
+            .andExpect(status().isOk())
+            .andExpect(content().string("null"));
+    }
+
+    @Test
+    void streamsDtoWithDepartmentAndPages() {
+        List<AccountDTO> page = webTestClient.get().uri("/api/v1/accounts?lastName.equals=Nguyen&size=2&page=1")
+            .exchange()
+            .expectStatus().isOk()
+            .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+            .returnResult(AccountDTO.class)
+            .getResponseBody()
+            .collectList()
+            .block();
+
+        assertThat(page).extracting(AccountDTO::getUsername).containsExactly("user6", "user9");
+        assertThat(page.get(0).getDepartmentName()).isEqualTo("Sales");
+        assertThat(page.get(1).getDepartmentId()).isNull();
+    }
+
+    @Test
+    void getsByUsername() {
+        webTestClient.get().uri("/api/v1/accounts/username/user3")
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody()
+            .jsonPath("$.username").isEqualTo("user3")
+            .jsonPath("$.lastName").isEqualTo("Nguyen")
+            .jsonPath("$.password").doesNotExist();
+    }
+
+    @Test
+    void rejectsInvalidFilter() {
+        webTestClient.get().uri("/api/v1/accounts?id.greaterThan=abc")
+            .exchange()
+            .expectStatus().isBadRequest();
+    }
+
+    private List<String> reactiveUsernames(String query) {
+        return webTestClient.get().uri("/api/v1/accounts?" + query)
+            .exchange()
+            .expectStatus().isOk()
+            .returnResult(AccountDTO.class)
+            .getResponseBody()
+            .map(AccountDTO::getUsername)
+            .collectList()
+            .block();
+    }
+
+    private List<String> servletUsernames(String query) throws Exception {
+        // servlet không tự thêm id vào sort: query có sort thì đã tự ghi rõ id khi có giá trị trùng
+        String sort = query.contains("sort=") ? "" : "&sort=id";
+        String body = mockMvc.perform(get("/api/v1/accounts?" + query + "&size=100" + sort))
+            .andReturn().getResponse().getContentAsString();
+        List<String> usernames = new ArrayList<>();
+        for (JsonNode account : objectMapper.readTree(body).path("content")) {
+            usernames.add(account.path("username").asText());
+        }
+        return usernames;
+    }
+}
@@ -0,0 +1,27 @@
+package com.vti.rk25finalexam.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.vti.rk25finalexam.spec.filter.StringFilter;
+import org.junit.jupiter.api.Test;
+
+class AccountCriteriaCompilerTests {
+
+    @Test
+    void searchByIdOnlyForContainsWithUpToNineDigits() {
+        assertThat(AccountCriteriaCompiler.searchById(contains("123456789"))).isTrue();
+        assertThat(AccountCriteriaCompiler.searchById(contains("1234567890"))).isFalse();
+        assertThat(AccountCriteriaCompiler.searchById(contains("12a"))).isFalse();
+        assertThat(AccountCriteriaCompiler.searchById(null)).isFalse();
+
+        StringFilter equals = new StringFilter();
+        equals.setEquals("123");
+        assertThat(AccountCriteriaCompiler.searchById(equals)).isFalse();
+    }
+
+    private static StringFilter contains(String value) {
+        StringFilter filter = new StringFilter();
+        filter.setContains(value);
+        return filter;
+    }
+}
@@ -0,0 +1,69 @@
+package com.vti.rk25finalexam.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.vti.rk25finalexam.entity.dto.AccountDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class AccountDTOCacheTests {
+
+    private AccountDTOCache cache;
+
+    private List<List<String>> loads;
+
+    @BeforeEach
+    void setUp() {
+        cache = new AccountDTOCache(100L, Duration.ofMinutes(10), new SimpleMeterRegistry());
+        loads = new ArrayList<>();
+    }
+
+    @Test
+    void loadedAccountIsFoundUnderRequestedSpelling() {
+        // collation _ai_ci: DB trả về "Nguyễn" cho "NGUYEN"
+        Map<String, AccountDTO> found = cache.getAllByUsername(List.of("Alice", "NGUYEN", "bob"),
+            this::loadFromCaseInsensitiveDb);
+
+        assertThat(found).containsOnlyKeys("Alice", "NGUYEN");
+        assertThat(found.get("Alice").getUsername()).isEqualTo("alice");
+        assertThat(found.get("NGUYEN").getUsername()).isEqualTo("Nguyễn");
+    }
+
+    @Test
+    void cachedAccountIsFoundUnderAnotherSpelling() {
+        cache.getAllByUsername(List.of("alice"), this::loadFromCaseInsensitiveDb);
+
+        Map<String, AccountDTO> found = cache.getAllByUsername(List.of("ALICE", "alice "),
+            this::loadFromCaseInsensitiveDb);
+
+        assertThat(found).containsOnlyKeys("ALICE", "alice ");
+        assertThat(loads).hasSize(1);
+        assertThat(cache.getByUsername("Alice", () -> {
+            throw new AssertionError("should be served from cache");
+        })).hasValueSatisfying(account -> assertThat(account.getId()).isEqualTo(1));
+    }
+
+    private List<AccountDTO> loadFromCaseInsensitiveDb(List<String> usernames) {
+        loads.add(usernames);
+        List<AccountDTO> accounts = new ArrayList<>();
+        if (usernames.stream().anyMatch(username -> username.trim().equalsIgnoreCase("alice"))) {
+            accounts.add(account(1, "alice"));
+        }
+        if (usernames.stream().anyMatch(username -> username.equalsIgnoreCase("nguyen"))) {
+            accounts.add(account(2, "Nguyễn"));
+        }
+        return accounts;
+    }
+
+    private static AccountDTO account(Integer id, String username) {
+        AccountDTO account = new AccountDTO();
+        account.setId(id);
+        account.setUsername(username);
+        return account;
+    }
+}
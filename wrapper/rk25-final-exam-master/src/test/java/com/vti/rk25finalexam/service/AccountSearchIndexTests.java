@@ -0,0 +1,164 @@
+package com.vti.rk25finalexam.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.vti.rk25finalexam.event.AccountChangedEvent;
+import com.vti.rk25finalexam.repository.AccountRepository;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class AccountSearchIndexTests {
+
+    private AccountRepository accountRepository;
+
+    private AccountSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        accountRepository = mock(AccountRepository.class);
+        index = new AccountSearchIndex(accountRepository);
+        ReflectionTestUtils.setField(index, "enabled", true);
+        ReflectionTestUtils.setField(index, "loadBatchSize", 2);
+        ReflectionTestUtils.setField(index, "maxCandidates", 100);
+    }
+
+    @Test
+    void findsDigitsInsideUsername() {
+        load(row(1, "emp2024", "An", "Tran", "EMPLOYEE"), row(2, "emp1999", "Binh", "Le", "ADMIN"));
+
+        assertThat(index.search("202")).hasValueSatisfying(ids -> assertThat(ids).containsExactly(1));
+        assertThat(index.search("p19")).hasValueSatisfying(ids -> assertThat(ids).containsExactly(2));
+        assertThat(index.search("2025")).hasValueSatisfying(ids -> assertThat(ids).isEmpty());
+    }
+
+    @Test
+    void ignoresAccentsAndCase() {
+        load(row(1, "nguyen", "Nguyễn", "Đức Thắng", "EMPLOYEE"), row(2, "tran", "Trần", "An", "EMPLOYEE"));
+
+        assertThat(index.search("NGUYEN")).hasValueSatisfying(ids -> assertThat(ids).containsExactly(1));
+        assertThat(index.search("thang")).hasValueSatisfying(ids -> assertThat(ids).containsExactly(1));
+        assertThat(index.search("trầ")).hasValueSatisfying(ids -> assertThat(ids).containsExactly(2));
+    }
+
+    @Test
+    void rebuildDoesNotRestoreAccountDeletedWhileLoading() {
+        List<Object[]> stale = rows(row(1, "alice", "Alice", "Tran", "EMPLOYEE"));
+        // lần đọc đầu: account 1 bị xóa mềm (listener gọi remove) trước khi lô được index
+        when(accountRepository.findSearchColumnsAfter(eq(0), any(Pageable.class)))
+            .thenAnswer(invocation -> {
+                index.remove(1);
+                return stale;
+            })
+            .thenReturn(new ArrayList<>());
+
+        index.rebuild();
+
+        assertThat(index.search("alice")).hasValueSatisfying(ids -> assertThat(ids).isEmpty());
+        verify(accountRepository, times(1)).findSearchColumnsAfter(eq(0), any(Pageable.class));
+    }
+
+    @Test
+    void rebuildFinishesUnderSteadyWrites() {
+        // mỗi lần đọc đều có một account khác được ghi xen giữa: không đọc lại lô
+        AtomicInteger writes = new AtomicInteger(100);
+        when(accountRepository.findSearchColumnsAfter(any(), any(Pageable.class)))
+            .thenAnswer(invocation -> {
+                index.put(writes.incrementAndGet(), "writer" + writes.get(), "", "", "EMPLOYEE");
+                return invocation.getArgument(0).equals(0)
+                    ? rows(row(1, "alice", "", "", "EMPLOYEE"), row(2, "alina", "", "", "EMPLOYEE"))
+                    : rows(row(5, "alfred", "", "", "EMPLOYEE"));
+            });
+
+        index.rebuild();
+
+        assertThat(index.search("ali")).hasValueSatisfying(ids -> assertThat(ids).containsExactlyInAnyOrder(1, 2));
+        assertThat(index.search("writer")).hasValueSatisfying(ids -> assertThat(ids).containsExactlyInAnyOrder(101, 102));
+        verify(accountRepository, times(2)).findSearchColumnsAfter(any(), any(Pageable.class));
+    }
+
+    @Test
+    void reloadKeepsServingPreviousIndex() throws InterruptedException {
+        load(row(1, "alice", "Alice", "Tran", "EMPLOYEE"));
+        CountDownLatch reading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(accountRepository.findSearchColumnsAfter(eq(0), any(Pageable.class)))
+            .thenAnswer(invocation -> {
+                reading.countDown();
+                release.await();
+                return rows(row(1, "alice", "Alice", "Tran", "MANAGER"));
+            });
+
+        index.load();
+        assertThat(reading.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(index.search("alice")).hasValueSatisfying(ids -> assertThat(ids).containsExactly(1));
+        release.countDown();
+        assertThat(awaitSearch("manager")).hasValueSatisfying(ids -> assertThat(ids).containsExactly(1));
+    }
+
+    @Test
+    void rebuildReadsEveryBatch() {
+        when(accountRepository.findSearchColumnsAfter(eq(0), any(Pageable.class)))
+            .thenReturn(rows(row(1, "alice", "", "", "EMPLOYEE"), row(2, "alina", "", "", "EMPLOYEE")));
+        when(accountRepository.findSearchColumnsAfter(eq(2), any(Pageable.class)))
+            .thenReturn(rows(row(5, "alfred", "", "", "EMPLOYEE")));
+
+        index.rebuild();
+
+        assertThat(index.search("ali")).hasValueSatisfying(ids -> assertThat(ids).containsExactlyInAnyOrder(1, 2));
+        assertThat(index.search("alf")).hasValueSatisfying(ids -> assertThat(ids).containsExactly(5));
+    }
+
+    @Test
+    void changeReloadsOnlyChangedIds() {
+        load(row(1, "alice", "Alice", "Tran", "EMPLOYEE"), row(2, "bob", "Bob", "Le", "EMPLOYEE"));
+        // UPDATE theo điều kiện: role của account 1 đổi trong DB, account 3 đã bị xóa mềm
+        when(accountRepository.findSearchColumnsByIdIn(List.of(1, 3)))
+            .thenReturn(rows(row(1, "alice", "Alice", "Tran", "MANAGER")));
+
+        index.onAccountChanged(new AccountChangedEvent(List.of(1, 3)));
+
+        assertThat(index.search("manager")).hasValueSatisfying(ids -> assertThat(ids).containsExactly(1));
+        assertThat(index.search("employee")).hasValueSatisfying(ids -> assertThat(ids).containsExactly(2));
+        verify(accountRepository, times(1)).findSearchColumnsAfter(eq(0), any(Pageable.class));
+    }
+
+    // nạp lại chạy ở thread riêng; trong lúc nạp search vẫn dùng index cũ
+    private Optional<Set<Integer>> awaitSearch(String term) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        Optional<Set<Integer>> result = index.search(term);
+        while (result.map(Set::isEmpty).orElse(true) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            result = index.search(term);
+        }
+        return result;
+    }
+
+    private void load(Object[]... rows) {
+        when(accountRepository.findSearchColumnsAfter(eq(0), any(Pageable.class))).thenReturn(rows(rows));
+        index.rebuild();
+    }
+
+    private static List<Object[]> rows(Object[]... rows) {
+        return new ArrayList<>(List.of(rows));
+    }
+
+    private static Object[] row(Integer id, String username, String firstName, String lastName, String role) {
+        return new Object[]{id, username, firstName, lastName, role};
+    }
+}
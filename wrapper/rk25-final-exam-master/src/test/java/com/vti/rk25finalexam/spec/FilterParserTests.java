@@ -0,0 +1,58 @@
+package com.vti.rk25finalexam.spec;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.vti.rk25finalexam.exception.RK25Exception;
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+
+class FilterParserTests {
+
+    @Test
+    void andBindsTighterThanOr() {
+        Expression expression = FilterParser.parse("id:equals:1 OR role:equals:ADMIN AND lastName:equals:Nguyen");
+
+        assertThat(expression.getOr()).hasSize(2);
+        assertThat(expression.getOr().get(0).getField()).isEqualTo("id");
+        assertThat(expression.getOr().get(1).getAnd())
+            .extracting(Expression::getField)
+            .containsExactly("role", "lastName");
+    }
+
+    @Test
+    void notAppliesToTheNextTermOnly() {
+        Expression expression = FilterParser.parse("NOT role:equals:ADMIN AND id:equals:1");
+
+        assertThat(expression.getAnd()).hasSize(2);
+        assertThat(expression.getAnd().get(0).getNot().getField()).isEqualTo("role");
+        assertThat(expression.getAnd().get(1).getField()).isEqualTo("id");
+    }
+
+    @Test
+    void parenthesesOverridePrecedence() {
+        Expression expression = FilterParser.parse("(id:equals:1 OR id:equals:2) AND role:equals:ADMIN");
+
+        assertThat(expression.getAnd()).hasSize(2);
+        assertThat(expression.getAnd().get(0).getOr()).hasSize(2);
+    }
+
+    @Test
+    void quotedValueKeepsSpacesAndParentheses() {
+        Expression expression = FilterParser.parse("firstName:contains:\"Van (A) B\" and id:in:1,2");
+
+        assertThat(expression.getAnd().get(0).getValue()).isEqualTo("Van (A) B");
+        assertThat(expression.getAnd().get(1).getValue()).isEqualTo(Arrays.asList("1", "2"));
+    }
+
+    @Test
+    void malformedFilterIsRejected() {
+        for (String filter : Arrays.asList(
+            "", "id:equals", "(id:equals:1", "id:equals:1)", "firstName:equals:\"Van", "id:equals:1 AND", "NOT")) {
+            assertThatThrownBy(() -> FilterParser.parse(filter))
+                .as(filter)
+                .isInstanceOfSatisfying(RK25Exception.class,
+                    e -> assertThat(e.getRk25Error().getCode()).isEqualTo("filter.isNotValid"));
+        }
+    }
+}
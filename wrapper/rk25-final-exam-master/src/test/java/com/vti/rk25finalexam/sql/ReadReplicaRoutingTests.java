@@ -0,0 +1,105 @@
+package com.vti.rk25finalexam.sql;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.vti.rk25finalexam.entity.Account;
+import com.vti.rk25finalexam.entity.criteria.AccountCriteria;
+import com.vti.rk25finalexam.entity.dto.AccountDTO;
+import com.vti.rk25finalexam.repository.AccountRepository;
+import com.vti.rk25finalexam.service.AccountService;
+import com.vti.rk25finalexam.spec.AccountFields;
+import java.util.List;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+@ActiveProfiles("test")
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:rw-primary;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+    "app.datasource.replica.enabled=true",
+    "app.datasource.replica.urls=" + ReadReplicaRoutingTests.REPLICA_URL,
+})
+@AutoConfigureMockMvc
+class ReadReplicaRoutingTests {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:rw-replica;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private AccountService accountService;
+
+    private JdbcTemplate primary;
+
+    private JdbcTemplate replica;
+
+    @BeforeEach
+    void setUp() {
+        // ngoài transaction -> primary
+        primary = new JdbcTemplate(dataSource);
+        replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+        // replica cùng schema với primary (ddl-auto chỉ chạy trên primary)
+        replica.execute("DROP ALL OBJECTS");
+        primary.queryForList("SCRIPT NODATA", String.class).forEach(replica::execute);
+
+        accountRepository.save(new Account().username("on_primary").firstName("P").lastName("Primary").role("EMPLOYEE"));
+        replica.update("insert into account (id, username, first_name, last_name, role, is_deleted) "
+            + "values (1000, 'on_replica', 'R', 'Replica', 'EMPLOYEE', 0)");
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+        accountRepository.deleteAllInBatch();
+        replica.execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    void readOnlyRequestReadsFromReplica() throws Exception {
+        mockMvc.perform(get("/api/v1/accounts"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.content.length()").value(1))
+            .andExpect(jsonPath("$.content[0].username").value("on_replica"));
+    }
+
+    @Test
+    void readsAfterWriteInTheSameRequestStayOnPrimary() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        assertThat(usernames()).containsExactly("on_replica");
+
+        accountRepository.save(new Account().username("written").firstName("W").lastName("Written").role("EMPLOYEE"));
+        assertThat(usernames()).containsExactlyInAnyOrder("on_primary", "written");
+
+        // request mới -> lại đọc replica
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        assertThat(usernames()).containsExactly("on_replica");
+    }
+
+    private List<String> usernames() {
+        return accountService.findAllByCriteria(new AccountCriteria(), PageRequest.of(0, 10), AccountFields.ALL)
+            .map(AccountDTO::getUsername)
+            .getContent();
+    }
+}
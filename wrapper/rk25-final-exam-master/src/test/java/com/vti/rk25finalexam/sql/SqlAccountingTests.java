@@ -0,0 +1,44 @@
+package com.vti.rk25finalexam.sql;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class SqlAccountingTests {
+
+    private static final String SELECT_DEPARTMENT = "select d.id, d.name from department d where d.id=?";
+
+    @Test
+    void repeatedShapeIsSuspectedNPlusOne() {
+        SqlAccounting accounting = new SqlAccounting(3, true);
+        accounting.statement("select a.id from account a", 1_000_000);
+        accounting.statement(SELECT_DEPARTMENT, 500_000);
+        accounting.statement(SELECT_DEPARTMENT, 500_000);
+        assertThat(accounting.isSuspectedNPlusOne()).isFalse();
+
+        accounting.statement(SELECT_DEPARTMENT, 500_000);
+        Map<String, String> headers = new HashMap<>();
+        accounting.writeHeaders(headers::put);
+
+        assertThat(accounting.isSuspectedNPlusOne()).isTrue();
+        assertThat(accounting.getRepeatedShape()).isEqualTo(SELECT_DEPARTMENT);
+        assertThat(headers)
+            .containsEntry("X-Query-Count", "4")
+            .containsEntry("X-DB-Time", "2.500")
+            .containsEntry("X-N-Plus-One", "3");
+    }
+
+    @Test
+    void rowsHeaderOnlyWhenRowsAreCounted() {
+        SqlAccounting accounting = new SqlAccounting(3, false);
+        accounting.statement("select a.id from account a", 1_000_000);
+        accounting.statement(SELECT_DEPARTMENT, 500_000);
+        Map<String, String> headers = new HashMap<>();
+        accounting.writeHeaders(headers::put);
+
+        assertThat(headers).containsKey("X-Query-Count").doesNotContainKey("X-DB-Rows");
+        assertThat(accounting.getShapes()).containsExactlyInAnyOrder("select a.id from account a", SELECT_DEPARTMENT);
+    }
+}
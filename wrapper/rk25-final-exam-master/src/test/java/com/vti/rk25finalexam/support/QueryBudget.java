@@ -0,0 +1,57 @@
+package com.vti.rk25finalexam.support;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.vti.rk25finalexam.common.Constants.SQL_ACCOUNTING;
+import com.vti.rk25finalexam.sql.SqlAccounting;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+/**
+ * Giới hạn số câu SQL của một endpoint trong test MockMvc:
+ * <pre>
+ *   mockMvc.perform(get("/api/v1/accounts"))
+ *       .andExpect(QueryBudget.queryCount(2))
+ *       .andExpect(QueryBudget.noNPlusOne());
+ * </pre>
+ * Đọc SqlAccounting của request (tính cả query chạy lúc serialize response), không phải header.
+ */
+public final class QueryBudget {
+
+    private QueryBudget() {
+    }
+
+    public static ResultMatcher queryCount(int expected) {
+        return result -> assertThat(accounting(result).getStatements())
+            .as("SQL statements of %s", describe(result))
+            .isEqualTo(expected);
+    }
+
+    public static ResultMatcher maxQueryCount(int max) {
+        return result -> assertThat(accounting(result).getStatements())
+            .as("SQL statements of %s", describe(result))
+            .isLessThanOrEqualTo(max);
+    }
+
+    public static ResultMatcher noNPlusOne() {
+        return result -> {
+            SqlAccounting accounting = accounting(result);
+            assertThat(accounting.isSuspectedNPlusOne())
+                .as("%s ran the same query %d times: %s",
+                    describe(result), accounting.getRepeated(), accounting.getRepeatedShape())
+                .isFalse();
+        };
+    }
+
+    private static SqlAccounting accounting(MvcResult result) {
+        Object accounting = result.getRequest().getAttribute(SQL_ACCOUNTING.REQUEST_ATTRIBUTE);
+        assertThat(accounting)
+            .as("SqlAccountingFilter is not registered (app.sql-accounting.enabled=false?)")
+            .isInstanceOf(SqlAccounting.class);
+        return (SqlAccounting) accounting;
+    }
+
+    private static String describe(MvcResult result) {
+        return result.getRequest().getMethod() + " " + result.getRequest().getRequestURI();
+    }
+}
@@ -0,0 +1,34 @@
+package com.vti.rk25finalexam.support;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import javax.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+@Component
+public class SqlStatementCounter {
+
+    private final Statistics statistics;
+
+    public SqlStatementCounter(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory
+            .unwrap(SessionFactory.class)
+            .getStatistics();
+    }
+
+    public void reset() {
+        statistics.clear();
+    }
+
+    public long count() {
+        return statistics.getPrepareStatementCount();
+    }
+
+    public void assertStatementCount(long expected) {
+        assertThat(count())
+            .as("SQL statements executed")
+            .isEqualTo(expected);
+    }
+}
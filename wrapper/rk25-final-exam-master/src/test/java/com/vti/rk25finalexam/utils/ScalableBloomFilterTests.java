@@ -0,0 +1,29 @@
+package com.vti.rk25finalexam.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class ScalableBloomFilterTests {
+
+    @Test
+    void growsWithoutFalseNegativesAndKeepsFalsePositiveRate() {
+        ScalableBloomFilter filter = new ScalableBloomFilter(1_000, 0.01);
+        for (int i = 0; i < 20_000; i++) {
+            filter.put("user" + i);
+        }
+
+        for (int i = 0; i < 20_000; i++) {
+            assertThat(filter.mightContain("user" + i)).isTrue();
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain("other" + i)) {
+                falsePositives++;
+            }
+        }
+        assertThat(filter.stageCount()).isGreaterThan(1);
+        assertThat(falsePositives / 100_000.0).isLessThan(0.01);
+        assertThat(filter.expectedFalsePositiveRate()).isLessThan(0.01);
+    }
+}